@@ -0,0 +1,90 @@
+package chess;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Move validation, game status queries and FEN conversion over the perft reference
+ * positions.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ChessGameBenchmark {
+
+    @Param({"start", "kiwipete", "endgame", "middlegame"})
+    public String position;
+
+    private ChessGame game;
+    private ChessPosition busiestPiece;
+    private String fen;
+    private final StringBuilder fenBuilder = new StringBuilder();
+
+    @Setup
+    public void setup() {
+        Perft.Reference reference = Perft.REFERENCES.stream()
+                .filter(r -> r.name().equals(position))
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("no reference position " + position));
+        game = Fen.parse(reference.fen());
+        fen = reference.fen();
+
+        // validMoves is measured on the side-to-move piece with the most legal moves
+        int most = -1;
+        for (long pieces = game.getBoard().occupancy(game.getTeamTurn()); pieces != 0; pieces &= pieces - 1) {
+            ChessPosition square = Bitboards.position(Long.numberOfTrailingZeros(pieces));
+            int count = game.validMoves(square).size();
+            if (count > most) {
+                most = count;
+                busiestPiece = square;
+            }
+        }
+    }
+
+    @Benchmark
+    public Collection<ChessMove> validMoves() {
+        return game.validMoves(busiestPiece);
+    }
+
+    @Benchmark
+    public Collection<ChessMove> getAllValidMoves() {
+        return game.getAllValidMoves(game.getTeamTurn());
+    }
+
+    @Benchmark
+    public boolean isInCheck() {
+        return game.isInCheck(game.getTeamTurn());
+    }
+
+    @Benchmark
+    public boolean isInCheckmate() {
+        return game.isInCheckmate(game.getTeamTurn());
+    }
+
+    @Benchmark
+    public ChessGame fromFen() {
+        return ChessGame.fromFen(fen);
+    }
+
+    @Benchmark
+    public int appendFen() {
+        fenBuilder.setLength(0);
+        game.appendFen(fenBuilder);
+        return fenBuilder.length();
+    }
+}
@@ -0,0 +1,78 @@
+package chess;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Fixed-depth engine searches over the perft reference positions. The node counter
+ * turns the time per search into search throughput, and comparing thread counts
+ * gives the Lazy SMP time-to-depth speedup.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EngineBenchmark {
+
+    @Param({"start", "kiwipete", "endgame", "middlegame"})
+    public String position;
+
+    @Param({"4"})
+    public int depth;
+
+    @Param({"1", "2", "4"})
+    public int threads;
+
+    private ChessGame game;
+    private SearchLimits limits;
+    private final TranspositionTable table = new TranspositionTable(16);
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class Nodes {
+        public long nodes;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            nodes = 0;
+        }
+    }
+
+    @Setup
+    public void setup() {
+        Perft.Reference reference = Perft.REFERENCES.stream()
+                .filter(r -> r.name().equals(position))
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("no reference position " + position));
+        game = Fen.parse(reference.fen());
+        limits = SearchLimits.depth(depth).withThreads(threads);
+    }
+
+    // every search starts cold, otherwise later invocations would only read back the table
+    @Setup(Level.Invocation)
+    public void clearTable() {
+        table.clear();
+    }
+
+    @Benchmark
+    public ChessMove search(Nodes counter) {
+        Engine.Result result = Engine.search(game, limits, table);
+        counter.nodes += result.nodes();
+        return result.move();
+    }
+}
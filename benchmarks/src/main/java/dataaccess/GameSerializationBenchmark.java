@@ -0,0 +1,72 @@
+package dataaccess;
+
+import chess.ChessGame;
+import chess.ChessMove;
+import chess.ChessPosition;
+import chess.InvalidMoveException;
+import com.google.gson.Gson;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Gson round trips of a ChessGame, as done by SQLDataAccess.updateGame and getGame.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GameSerializationBenchmark {
+
+    // 1.e4 e5 2.Nf3 Nc6 3.Bc4 Bc5 4.d3 Nf6
+    private static final int[][] OPENING = {
+            {2, 5, 4, 5}, {7, 5, 5, 5}, {1, 7, 3, 6}, {8, 2, 6, 3},
+            {1, 6, 4, 3}, {8, 6, 5, 3}, {2, 4, 3, 4}, {8, 7, 6, 6},
+    };
+
+    @Param({"start", "opening"})
+    public String position;
+
+    private final Gson gson = new Gson();
+    private ChessGame game;
+    private String json;
+
+    @Setup
+    public void setup() throws InvalidMoveException {
+        game = new ChessGame();
+        if (position.equals("opening")) {
+            for (int[] move : OPENING) {
+                game.makeMove(new ChessMove(new ChessPosition(move[0], move[1]),
+                        new ChessPosition(move[2], move[3]), null));
+            }
+        }
+        json = gson.toJson(game);
+    }
+
+    @Benchmark
+    public String toJson() {
+        return gson.toJson(game);
+    }
+
+    @Benchmark
+    public ChessGame fromJson() {
+        return gson.fromJson(json, ChessGame.class);
+    }
+
+    @Benchmark
+    public ChessGame roundTrip() {
+        return gson.fromJson(gson.toJson(game), ChessGame.class);
+    }
+}
@@ -0,0 +1,83 @@
+package ws;
+
+import chess.ChessGame;
+import io.javalin.websocket.WsContext;
+import org.eclipse.jetty.websocket.api.RemoteEndpoint;
+import org.eclipse.jetty.websocket.api.Session;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import websocket.LoadGameMessage;
+
+import java.lang.reflect.Proxy;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiFunction;
+
+/**
+ * GameConnectionManager.broadcastToGame fan-out of a LOAD_GAME message. The
+ * contexts are stubs whose sends only count bytes, so this measures
+ * serialization and iteration, not the network.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BroadcastBenchmark {
+
+    private static final int GAME_ID = 1;
+
+    @Param({"2", "16", "128"})
+    public int connections;
+
+    private GameConnectionManager manager;
+    private LoadGameMessage message;
+    private long bytesSent;
+
+    @Setup
+    public void setup() {
+        manager = new GameConnectionManager();
+        for (int i = 0; i < connections; i++) {
+            manager.addConnection(GAME_ID, stubContext("session-" + i));
+        }
+        message = new LoadGameMessage(new ChessGame());
+    }
+
+    @Benchmark
+    public long broadcastToGame() {
+        manager.broadcastToGame(GAME_ID, message);
+        return bytesSent;
+    }
+
+    private WsContext stubContext(String sessionId) {
+        RemoteEndpoint remote = stub(RemoteEndpoint.class, (method, args) -> {
+            if (method.equals("sendString")) {
+                bytesSent += ((String) args[0]).length();
+            }
+            return null;
+        });
+        Session session = stub(Session.class, (method, args) -> method.equals("getRemote") ? remote : null);
+        return new WsContext(sessionId, session) {
+        };
+    }
+
+    // interface stub with identity equals/hashCode, so contexts can live in the manager's sets
+    private static <T> T stub(Class<T> type, BiFunction<String, Object[], Object> handler) {
+        return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    case "equals" -> proxy == args[0];
+                    case "toString" -> type.getSimpleName() + " stub";
+                    default -> handler.apply(method.getName(), args);
+                }));
+    }
+}
@@ -28,4 +28,6 @@ public interface DataAccess {
     GameData getGame(int gameID) throws Exception;
     JoinResult joinGame(GameData game, String color, String username) throws Exception;
     Collection<GameData> listGames() throws Exception;
+    // stores finished games in one batch; their IDs are assigned by the store
+    void insertGames(Collection<GameData> games) throws Exception;
 }
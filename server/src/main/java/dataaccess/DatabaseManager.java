@@ -89,7 +89,8 @@ public class DatabaseManager {
 
         var host = props.getProperty("db.host");
         var port = Integer.parseInt(props.getProperty("db.port"));
-        connectionUrl = String.format("jdbc:mysql://%s:%d", host, port);
+        // lets batched inserts reach the server as multi-row statements
+        connectionUrl = String.format("jdbc:mysql://%s:%d?rewriteBatchedStatements=true", host, port);
     }
 
 
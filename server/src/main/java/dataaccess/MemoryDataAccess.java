@@ -60,6 +60,14 @@ public class MemoryDataAccess implements DataAccess {
                 return gameID;
     }
 
+    public void insertGames(Collection<GameData> newGames) {
+        for (GameData game : newGames) {
+            int gameID = games.size() + 1;
+            games.put(gameID, new GameData(gameID, game.whiteUsername(), game.blackUsername(), game.gameName(),
+                    game.game()));
+        }
+    }
+
     public GameData getGame(int gameID) throws Exception {
         if(!games.containsKey(gameID)){
             throw new Exception("game does not exist");
@@ -217,6 +217,30 @@ public class SQLDataAccess implements DataAccess{
         }
     }
 
+    public void insertGames(Collection<GameData> games) throws Exception {
+        var sql = """
+                INSERT INTO game (game_name, white_username, black_username, game_state) VALUES (?,?,?,?)""";
+        try (var conn = DatabaseManager.getConnection()) {
+            conn.setAutoCommit(false);
+            try (var ps = conn.prepareStatement(sql)) {
+                for (GameData game : games) {
+                    ps.setString(1, game.gameName());
+                    ps.setString(2, game.whiteUsername());
+                    ps.setString(3, game.blackUsername());
+                    ps.setString(4, gson.toJson(game.game()));
+                    ps.addBatch();
+                }
+                ps.executeBatch();
+                conn.commit();
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            }
+        } catch (SQLException e) {
+            throw new Exception(e.getMessage(), e);
+        }
+    }
+
     public void updateGame(int gameID, ChessGame game) throws Exception {
         String json = gson.toJson(game);
         var sql = "UPDATE game SET game_state = ? WHERE id = ?";
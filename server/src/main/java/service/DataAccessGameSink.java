@@ -0,0 +1,41 @@
+package service;
+
+import chess.PgnGame;
+import dataaccess.DataAccess;
+import dataaccess.Exception;
+import model.GameData;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Stores each batch of imported games in the game store with one batched insert
+ */
+public class DataAccessGameSink implements GameSink {
+    // length of the game_name column
+    private static final int NAME_LIMIT = 255;
+
+    private final DataAccess dataAccess;
+
+    public DataAccessGameSink(DataAccess dataAccess) {
+        this.dataAccess = dataAccess;
+    }
+
+    public void accept(List<PgnGame> games) throws Exception {
+        List<GameData> rows = new ArrayList<>(games.size());
+        for (PgnGame game : games) {
+            rows.add(new GameData(0, null, null, name(game), game.game()));
+        }
+        dataAccess.insertGames(rows);
+    }
+
+    // the players are not accounts here, so they are named in the game name instead
+    private static String name(PgnGame game) {
+        String name = game.tags().getOrDefault("White", "?") + " vs " + game.tags().getOrDefault("Black", "?");
+        String event = game.tags().get("Event");
+        if (event != null && !event.isBlank() && !event.equals("?")) {
+            name += " (" + event + ")";
+        }
+        return name.length() <= NAME_LIMIT ? name : name.substring(0, NAME_LIMIT);
+    }
+}
@@ -0,0 +1,117 @@
+package service;
+
+import chess.Pgn;
+import chess.PgnGame;
+import chess.PgnReader;
+import dataaccess.DataAccess;
+import dataaccess.Exception;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+public class GameImportService {
+    // games decoded by one task
+    private static final int BATCH = 500;
+
+    private final GameSink sink;
+    private final ForkJoinPool pool;
+
+    public record Summary(long imported, long rejected) {}
+
+    private record Decoded(List<PgnGame> games, int rejected) {}
+
+    public GameImportService(DataAccess dataAccess) {
+        this(new DataAccessGameSink(dataAccess), ForkJoinPool.commonPool());
+    }
+
+    public GameImportService(GameSink sink, ForkJoinPool pool) {
+        this.sink = sink;
+        this.pool = pool;
+    }
+
+    /**
+     * Streams a PGN file into the sink. This thread splits the file into games while
+     * the pool decodes them in batches; batches reach the sink in file order, and only
+     * a couple of batches per pool thread are held at once, so memory stays flat
+     * however large the file is. Games with malformed or illegal moves, and games too
+     * long for the reader, are skipped.
+     *
+     * @return how many games were imported and how many were skipped
+     */
+    public Summary importFile(Path pgn) throws IOException, Exception {
+        Deque<Future<Decoded>> inFlight = new ArrayDeque<>();
+        int window = 2 * pool.getParallelism();
+        long imported = 0;
+        long rejected = 0;
+        try (PgnReader reader = PgnReader.open(pgn)) {
+            List<String> batch = new ArrayList<>(BATCH);
+            for (String text = reader.next(); text != null; text = reader.next()) {
+                batch.add(text);
+                if (batch.size() == BATCH) {
+                    inFlight.add(submit(batch));
+                    batch = new ArrayList<>(BATCH);
+                }
+                // hand finished batches on while the reader stays ahead of the pool
+                while (inFlight.size() > window || !inFlight.isEmpty() && inFlight.peek().isDone()) {
+                    Decoded decoded = deliver(inFlight.poll());
+                    imported += decoded.games().size();
+                    rejected += decoded.rejected();
+                }
+            }
+            if (!batch.isEmpty()) {
+                inFlight.add(submit(batch));
+            }
+            while (!inFlight.isEmpty()) {
+                Decoded decoded = deliver(inFlight.poll());
+                imported += decoded.games().size();
+                rejected += decoded.rejected();
+            }
+            rejected += reader.skipped();
+        } finally {
+            for (Future<Decoded> future : inFlight) {
+                future.cancel(true);
+            }
+        }
+        return new Summary(imported, rejected);
+    }
+
+    private Future<Decoded> submit(List<String> texts) {
+        return pool.submit(() -> decode(texts));
+    }
+
+    private static Decoded decode(List<String> texts) {
+        List<PgnGame> games = new ArrayList<>(texts.size());
+        int rejected = 0;
+        for (String text : texts) {
+            try {
+                games.add(Pgn.parse(text));
+            } catch (IllegalArgumentException e) {
+                rejected++;
+            }
+        }
+        return new Decoded(games, rejected);
+    }
+
+    private Decoded deliver(Future<Decoded> future) throws Exception {
+        Decoded decoded;
+        try {
+            decoded = future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new Exception("Error: import interrupted", e);
+        } catch (ExecutionException e) {
+            throw new Exception("Error: decoding failed: " + e.getCause().getMessage(), e.getCause());
+        }
+        if (!decoded.games().isEmpty()) {
+            sink.accept(decoded.games());
+        }
+        return decoded;
+    }
+}
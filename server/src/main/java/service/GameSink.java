@@ -0,0 +1,13 @@
+package service;
+
+import chess.PgnGame;
+import dataaccess.Exception;
+
+import java.util.List;
+
+/**
+ * Receives imported games in batches, in the order they appear in the imported file
+ */
+public interface GameSink {
+    void accept(List<PgnGame> games) throws Exception;
+}
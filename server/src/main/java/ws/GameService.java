@@ -101,6 +101,12 @@ public class GameService {
                 if (game.isInCheckmate(game.getTeamTurn())) {
                     gameOver.put(gameID, true);
                     connections.broadcastToGame(gameID, new NotificationMessage("Checkmate"));
+                } else if (game.isDrawByRepetition()) {
+                    gameOver.put(gameID, true);
+                    connections.broadcastToGame(gameID, new NotificationMessage("Draw by threefold repetition"));
+                } else if (game.isDrawByFiftyMoves()) {
+                    gameOver.put(gameID, true);
+                    connections.broadcastToGame(gameID, new NotificationMessage("Draw by the fifty-move rule"));
                 }
             }
         } catch (Exception e) {
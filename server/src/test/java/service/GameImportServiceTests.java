@@ -0,0 +1,104 @@
+package service;
+
+import chess.PgnGame;
+import dataaccess.Exception;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+public class GameImportServiceTests {
+
+    // more than two batches of 500, so several are decoded at once
+    private static final int GAMES = 1234;
+
+    @TempDir
+    private Path dir;
+    private ForkJoinPool pool;
+    private Path pgn;
+    private List<Integer> expected;
+
+    // keeps each batch as the Event numbers of its games
+    private static class RecordingSink implements GameSink {
+        private final List<List<Integer>> batches = new ArrayList<>();
+
+        @Override
+        public void accept(List<PgnGame> games) throws Exception {
+            List<Integer> events = new ArrayList<>(games.size());
+            for (PgnGame game : games) {
+                events.add(Integer.parseInt(game.tags().get("Event")));
+            }
+            batches.add(events);
+        }
+    }
+
+    @BeforeEach
+    public void setup() throws IOException {
+        pool = new ForkJoinPool(4);
+        expected = new ArrayList<>();
+        var text = new StringBuilder();
+        for (int i = 0; i < GAMES; i++) {
+            text.append("[Event \"").append(i).append("\"]\n\n");
+            if (i % 97 == 13) {
+                // the king cannot reach e3 in one move
+                text.append("1. e4 e5 2. Ke3 *\n\n");
+            } else if (i == 600) {
+                text.append("1. e4 {").append("x".repeat(1 << 20)).append("} e5 *\n\n");
+            } else {
+                text.append("1. e4 e5 2. Nf3 Nc6 3. Bc4 Nf6 *\n\n");
+                expected.add(i);
+            }
+        }
+        pgn = dir.resolve("games.pgn");
+        Files.writeString(pgn, text);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        pool.shutdownNow();
+    }
+
+    @Test
+    @DisplayName("Batches Reach Sink In File Order")
+    public void importInOrder() throws IOException, Exception {
+        var sink = new RecordingSink();
+        var summary = new GameImportService(sink, pool).importFile(pgn);
+
+        List<Integer> received = new ArrayList<>();
+        for (List<Integer> batch : sink.batches) {
+            Assertions.assertTrue(batch.size() <= 500, "batch of " + batch.size());
+            received.addAll(batch);
+        }
+        Assertions.assertEquals(expected, received);
+        Assertions.assertEquals(3, sink.batches.size());
+        Assertions.assertEquals(new GameImportService.Summary(expected.size(), GAMES - expected.size()), summary);
+    }
+
+    @Test
+    @DisplayName("Sink Failure Stops Import")
+    public void sinkFails() throws InterruptedException {
+        RecordingSink sink = new RecordingSink() {
+            @Override
+            public void accept(List<PgnGame> games) throws Exception {
+                super.accept(games);
+                throw new Exception("Error: store full");
+            }
+        };
+
+        var e = Assertions.assertThrows(Exception.class, () -> new GameImportService(sink, pool).importFile(pgn));
+        Assertions.assertEquals("Error: store full", e.getMessage());
+        Assertions.assertEquals(1, sink.batches.size());
+        Assertions.assertEquals(expected.subList(0, sink.batches.get(0).size()), sink.batches.get(0));
+        Assertions.assertTrue(pool.awaitQuiescence(10, TimeUnit.SECONDS));
+    }
+}
@@ -0,0 +1,106 @@
+package ws;
+
+import chess.ChessGame;
+import chess.ChessMove;
+import chess.ChessPosition;
+import com.google.gson.Gson;
+import dataaccess.MemoryDataAccess;
+import io.javalin.websocket.WsContext;
+import model.AuthData;
+import model.GameData;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import websocket.ErrorMessage;
+import websocket.NotificationMessage;
+import websocket.commands.UserGameCommand;
+import websocket.messages.ServerMessage;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class GameServiceTests {
+
+    // hands out a fresh copy of each game through JSON, as the SQL store does
+    private static class StoredGames extends MemoryDataAccess {
+        private final Gson gson = new Gson();
+
+        @Override
+        public GameData getGame(int gameID) throws dataaccess.Exception {
+            GameData data = super.getGame(gameID);
+            return new GameData(data.gameID(), data.whiteUsername(), data.blackUsername(), data.gameName(),
+                    gson.fromJson(gson.toJson(data.game()), ChessGame.class));
+        }
+    }
+
+    // keeps every message instead of sending it
+    private static class RecordingConnections extends GameConnectionManager {
+        private final List<ServerMessage> toGame = new ArrayList<>();
+        private final List<ServerMessage> toSender = new ArrayList<>();
+
+        @Override
+        public void broadcastToGame(Integer gameID, ServerMessage message) {
+            toGame.add(message);
+        }
+
+        @Override
+        public void broadcastToOthers(Integer gameID, WsContext exclude, ServerMessage message) {
+        }
+
+        @Override
+        public void send(WsContext ctx, ServerMessage message) {
+            toSender.add(message);
+        }
+    }
+
+    private RecordingConnections connections;
+    private GameService service;
+    private int gameID;
+
+    @BeforeEach
+    public void setup() throws dataaccess.Exception {
+        var dataAccess = new StoredGames();
+        dataAccess.createAuth(new AuthData("white-token", "white"));
+        dataAccess.createAuth(new AuthData("black-token", "black"));
+        gameID = dataAccess.createGame("shuffle");
+        dataAccess.joinGame(dataAccess.getGame(gameID), "WHITE", "white");
+        dataAccess.joinGame(dataAccess.getGame(gameID), "BLACK", "black");
+        connections = new RecordingConnections();
+        service = new GameService(dataAccess, connections);
+    }
+
+    private void move(String token, int fromRow, int fromCol, int toRow, int toCol) throws Exception {
+        var command = new UserGameCommand(UserGameCommand.CommandType.MAKE_MOVE, token, gameID);
+        command.move = new ChessMove(new ChessPosition(fromRow, fromCol), new ChessPosition(toRow, toCol), null);
+        service.handleMakeMove(command, null);
+    }
+
+    private List<String> notifications() {
+        List<String> messages = new ArrayList<>();
+        for (ServerMessage message : connections.toGame) {
+            if (message instanceof NotificationMessage notification) {
+                messages.add(notification.message);
+            }
+        }
+        return messages;
+    }
+
+    @Test
+    @DisplayName("Threefold Repetition Ends The Game")
+    public void threefoldRepetition() throws Exception {
+        for (int cycle = 0; cycle < 2; cycle++) {
+            Assertions.assertEquals(List.of(), notifications(), "Drawn too early");
+            move("white-token", 1, 7, 3, 6);
+            move("black-token", 8, 7, 6, 6);
+            move("white-token", 3, 6, 1, 7);
+            move("black-token", 6, 6, 8, 7);
+        }
+        Assertions.assertEquals(List.of(), connections.toSender, "No move should have failed");
+        Assertions.assertEquals(List.of("Draw by threefold repetition"), notifications());
+
+        move("white-token", 2, 5, 4, 5);
+        Assertions.assertEquals(1, connections.toSender.size());
+        Assertions.assertEquals("Error: game is over", ((ErrorMessage) connections.toSender.get(0)).errorMessage);
+    }
+}
@@ -0,0 +1,164 @@
+package chess;
+
+/**
+ * Square and attack helpers for the bitboard representation used by {@link ChessBoard}.
+ * <p>
+ * Square 0 is row 1, column 1 and square 63 is row 8, column 8, so bit
+ * {@code (row - 1) * 8 + (column - 1)} of a board word stands for that position.
+ */
+final class Bitboards {
+
+    static final long FILE_A = 0x0101010101010101L;
+    static final long FILE_H = FILE_A << 7;
+    static final long NOT_FILE_A = ~FILE_A;
+    static final long NOT_FILE_H = ~FILE_H;
+    static final long NOT_FILE_AB = ~(FILE_A | FILE_A << 1);
+    static final long NOT_FILE_GH = ~(FILE_H | FILE_H >>> 1);
+
+    static final long RANK_1 = 0xFFL;
+    static final long RANK_2 = RANK_1 << 8;
+    static final long RANK_3 = RANK_1 << 16;
+    static final long RANK_6 = RANK_1 << 40;
+    static final long RANK_7 = RANK_1 << 48;
+    static final long RANK_8 = RANK_1 << 56;
+
+    private Bitboards() {
+    }
+
+    static int square(int row, int col) {
+        return (row - 1) * 8 + (col - 1);
+    }
+
+    static int square(ChessPosition position) {
+        if (!isOnBoard(position)) {
+            throw new IndexOutOfBoundsException("position is off the board: " + position);
+        }
+        return (position.getRow() - 1) * 8 + position.getColumn() - 1;
+    }
+
+    static boolean isOnBoard(ChessPosition position) {
+        return ((position.getRow() - 1 | position.getColumn() - 1) & ~7) == 0;
+    }
+
+    static int row(int square) {
+        return (square >>> 3) + 1;
+    }
+
+    static int column(int square) {
+        return (square & 7) + 1;
+    }
+
+    static ChessPosition position(int square) {
+        return ChessPosition.of(row(square), column(square));
+    }
+
+    // attack sets of a single piece, indexed by square (and color ordinal for pawns)
+    private static final long[] KNIGHT_ATTACKS = new long[64];
+    private static final long[] KING_ATTACKS = new long[64];
+    private static final long[][] PAWN_ATTACKS = new long[2][64];
+
+    // squares strictly between two squares on a shared row, column or diagonal, else 0
+    private static final long[][] BETWEEN = new long[64][64];
+    // the whole row, column or diagonal through two aligned squares, else 0
+    private static final long[][] LINE = new long[64][64];
+
+    static {
+        int[][] directions = {{1, 0}, {0, 1}, {1, 1}, {1, -1}, {-1, 0}, {0, -1}, {-1, -1}, {-1, 1}};
+        for (int from = 0; from < 64; from++) {
+            for (int d = 0; d < directions.length; d++) {
+                long line = (1L << from) | ray(from, directions[d]) | ray(from, directions[(d + 4) % 8]);
+                long between = 0;
+                int row = (from >>> 3) + directions[d][0];
+                int col = (from & 7) + directions[d][1];
+                while (((row | col) & ~7) == 0) {
+                    int to = row * 8 + col;
+                    BETWEEN[from][to] = between;
+                    LINE[from][to] = line;
+                    between |= 1L << to;
+                    row += directions[d][0];
+                    col += directions[d][1];
+                }
+            }
+        }
+    }
+
+    static {
+        for (int square = 0; square < 64; square++) {
+            long bit = 1L << square;
+            KNIGHT_ATTACKS[square] = knightAttackSet(bit);
+            KING_ATTACKS[square] = kingAttackSet(bit);
+            PAWN_ATTACKS[ChessGame.TeamColor.WHITE.ordinal()][square] = pawnAttackSet(bit, ChessGame.TeamColor.WHITE);
+            PAWN_ATTACKS[ChessGame.TeamColor.BLACK.ordinal()][square] = pawnAttackSet(bit, ChessGame.TeamColor.BLACK);
+        }
+    }
+
+    static long between(int from, int to) {
+        return BETWEEN[from][to];
+    }
+
+    static long line(int from, int to) {
+        return LINE[from][to];
+    }
+
+    private static long ray(int from, int[] direction) {
+        long ray = 0;
+        int row = (from >>> 3) + direction[0];
+        int col = (from & 7) + direction[1];
+        while (((row | col) & ~7) == 0) {
+            ray |= 1L << (row * 8 + col);
+            row += direction[0];
+            col += direction[1];
+        }
+        return ray;
+    }
+
+    static long knightAttacks(int square) {
+        return KNIGHT_ATTACKS[square];
+    }
+
+    static long kingAttacks(int square) {
+        return KING_ATTACKS[square];
+    }
+
+    /**
+     * @return the squares a pawn of the given color on the given square attacks
+     */
+    static long pawnAttacks(int square, ChessGame.TeamColor color) {
+        return PAWN_ATTACKS[color.ordinal()][square];
+    }
+
+    private static long knightAttackSet(long knights) {
+        return ((knights << 17) & NOT_FILE_A) | ((knights << 15) & NOT_FILE_H)
+                | ((knights << 10) & NOT_FILE_AB) | ((knights << 6) & NOT_FILE_GH)
+                | ((knights >>> 17) & NOT_FILE_H) | ((knights >>> 15) & NOT_FILE_A)
+                | ((knights >>> 10) & NOT_FILE_GH) | ((knights >>> 6) & NOT_FILE_AB);
+    }
+
+    private static long kingAttackSet(long kings) {
+        long sideways = ((kings << 1) & NOT_FILE_A) | ((kings >>> 1) & NOT_FILE_H);
+        long row = kings | sideways;
+        return sideways | (row << 8) | (row >>> 8);
+    }
+
+    /**
+     * @return the squares attacked by a set of pawns of the given color
+     */
+    private static long pawnAttackSet(long pawns, ChessGame.TeamColor color) {
+        if (color == ChessGame.TeamColor.WHITE) {
+            return ((pawns << 9) & NOT_FILE_A) | ((pawns << 7) & NOT_FILE_H);
+        }
+        return ((pawns >>> 7) & NOT_FILE_A) | ((pawns >>> 9) & NOT_FILE_H);
+    }
+
+    static long rookAttacks(int square, long occupied) {
+        return Magics.rookAttacks(square, occupied);
+    }
+
+    static long bishopAttacks(int square, long occupied) {
+        return Magics.bishopAttacks(square, occupied);
+    }
+
+    static long queenAttacks(int square, long occupied) {
+        return Magics.rookAttacks(square, occupied) | Magics.bishopAttacks(square, occupied);
+    }
+}
@@ -1,5 +1,7 @@
 package chess;
 
+import com.google.gson.annotations.JsonAdapter;
+
 import java.util.Arrays;
 
 /**
@@ -7,28 +9,66 @@ import java.util.Arrays;
  * <p>
  * Note: You can add to this class, but you may not alter
  * signature of the existing methods.
+ * <p>
+ * Boards are serialized in the original {@code squares} layout by {@link ChessBoardAdapter}.
  */
+@JsonAdapter(ChessBoardAdapter.class)
 public class ChessBoard {
 
-    ChessPiece[][] squares = new ChessPiece[8][8];
+    private static final int TYPES = ChessPiece.PieceType.values().length;
+    // canonical piece for each board index
+    private static final ChessPiece[] PIECES = new ChessPiece[2 * TYPES];
+
+    static {
+        for (ChessGame.TeamColor color : ChessGame.TeamColor.values()) {
+            for (ChessPiece.PieceType type : ChessPiece.PieceType.values()) {
+                PIECES[index(color, type)] = ChessPiece.of(color, type);
+            }
+        }
+    }
+
+    // one occupancy word per color and piece type, indexed by index(color, type)
+    long[] pieceBoards = new long[2 * TYPES];
+    // union of the piece boards of each color, indexed by color ordinal
+    long[] colorBoards = new long[2];
+    // Zobrist key of the pieces on the board, kept up to date by place and remove; derived,
+    // so it is never serialized and a board read back gets it from placing its pieces
+    transient long zobrist;
+    // evaluation sums from white's point of view and game phase, also kept by place and remove;
+    // not serialized, so a loaded board always sums the current evaluation tables
+    transient int middlegame;
+    transient int endgame;
+    transient int phase;
 
     @Override
     public boolean equals(Object o) {
         if (this == o) {return true;}
         if (o == null || getClass() != o.getClass()) {return false;}
         ChessBoard that = (ChessBoard) o;
-        return Arrays.deepEquals(this.squares, that.squares);
+        if (zobrist != that.zobrist) {return false;}
+        return Arrays.equals(this.pieceBoards, that.pieceBoards);
     }
 
     @Override
     public int hashCode() {
-        return Arrays.deepHashCode(squares);
+        return Long.hashCode(zobrist);
+    }
+
+    /**
+     * @return a 64-bit Zobrist key of the pieces on the board; equal boards have equal keys
+     */
+    public long zobristKey() {
+        return zobrist;
     }
 
     public ChessBoard() {
 
     }
 
+    static int index(ChessGame.TeamColor color, ChessPiece.PieceType type) {
+        return color.ordinal() * TYPES + type.ordinal();
+    }
+
     /**
      * Adds a chess piece to the chessboard
      *
@@ -36,7 +76,91 @@ public class ChessBoard {
      * @param piece    the piece to add
      */
     public void addPiece(ChessPosition position, ChessPiece piece) {
-        squares[position.getRow() - 1][position.getColumn() - 1] = piece;
+        int square = Bitboards.square(position);
+        int old = pieceIndex(square);
+        if (old >= 0) {
+            remove(old, square);
+        }
+        if (piece != null) {
+            place(index(piece.getTeamColor(), piece.getPieceType()), square);
+        }
+    }
+
+    /**
+     * Moves a piece without checking that the move is legal, capturing whatever
+     * stands on the end position and promoting if the move says so
+     *
+     * @param move the move to apply, which must start on an occupied position
+     * @return undo state to hand back to {@link #unmakeMove}
+     */
+    public int makeMove(ChessMove move) {
+        int from = Bitboards.square(move.getStartPosition());
+        if (pieceIndex(from) < 0) {
+            throw new IllegalArgumentException("no piece at " + move.getStartPosition());
+        }
+        return makeMove(PackedMove.of(move));
+    }
+
+    /**
+     * Takes back a move applied with {@link #makeMove}, restoring any captured piece.
+     * Moves must be taken back in the reverse order they were made.
+     *
+     * @param move the move that was applied
+     * @param undo the value makeMove returned for it
+     */
+    public void unmakeMove(ChessMove move, int undo) {
+        unmakeMove(PackedMove.of(move), undo);
+    }
+
+    /**
+     * Applies a packed move, which must start on an occupied square
+     *
+     * @return undo state to hand back to {@link #unmakeMove(int, int)}
+     */
+    int makeMove(int move) {
+        int from = PackedMove.from(move);
+        int to = PackedMove.to(move);
+        int moved = pieceIndex(from);
+        int captured = pieceIndex(to);
+        if (captured >= 0) {
+            remove(captured, to);
+        }
+        remove(moved, from);
+        int promotion = PackedMove.promotionCode(move);
+        place(promotion == 0 ? moved : (moved / TYPES) * TYPES + promotion - 1, to);
+        return captured + 1;
+    }
+
+    void unmakeMove(int move, int undo) {
+        int from = PackedMove.from(move);
+        int to = PackedMove.to(move);
+        int placed = pieceIndex(to);
+        int moved = PackedMove.promotionCode(move) == 0 ? placed
+                : (placed / TYPES) * TYPES + ChessPiece.PieceType.PAWN.ordinal();
+        remove(placed, to);
+        place(moved, from);
+        int captured = undo - 1;
+        if (captured >= 0) {
+            place(captured, to);
+        }
+    }
+
+    void place(int index, int square) {
+        pieceBoards[index] |= 1L << square;
+        colorBoards[index / TYPES] |= 1L << square;
+        zobrist ^= Zobrist.piece(index, square);
+        middlegame += Evaluation.middlegame(index, square);
+        endgame += Evaluation.endgame(index, square);
+        phase += Evaluation.phase(index);
+    }
+
+    void remove(int index, int square) {
+        pieceBoards[index] &= ~(1L << square);
+        colorBoards[index / TYPES] &= ~(1L << square);
+        zobrist ^= Zobrist.piece(index, square);
+        middlegame -= Evaluation.middlegame(index, square);
+        endgame -= Evaluation.endgame(index, square);
+        phase -= Evaluation.phase(index);
     }
 
     /**
@@ -47,67 +171,128 @@ public class ChessBoard {
      * position
      */
     public ChessPiece getPiece(ChessPosition position) {
-        return squares[position.getRow() - 1][position.getColumn() - 1];
+        int index = pieceIndex(Bitboards.square(position));
+        return index < 0 ? null : PIECES[index];
     }
 
     /**
-     * Sets the board to the default starting board
-     * (How the game of chess normally starts)
+     * @return the index of the piece on the given square, or -1 if it is empty
      */
-    public void resetBoard() {
-        squares[0] = new ChessPiece[]{
-                new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.ROOK),
-                new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.KNIGHT),
-                new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.BISHOP),
-                new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.QUEEN),
-                new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.KING),
-                new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.BISHOP),
-                new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.KNIGHT),
-                new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.ROOK)
-        };
-
-        for (int j = 0; j < 8; j++) {
-            squares[1][j] = new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.PAWN);
+    int pieceIndex(int square) {
+        long bit = 1L << square;
+        int first;
+        if ((colorBoards[0] & bit) != 0) {
+            first = 0;
+        } else if ((colorBoards[1] & bit) != 0) {
+            first = TYPES;
+        } else {
+            return -1;
         }
-
-        for (int i = 2; i < 6; i++) {
-            for (int j = 0; j < 8; j++) {
-                squares[i][j] = null;
+        for (int i = first; i < first + TYPES; i++) {
+            if ((pieceBoards[i] & bit) != 0) {
+                return i;
             }
         }
+        return -1;
+    }
 
-        for (int j = 0; j < 8; j++) {
-            squares[6][j] = new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.PAWN);
-        }
+    long pieces(ChessGame.TeamColor color, ChessPiece.PieceType type) {
+        return pieceBoards[index(color, type)];
+    }
 
-        squares[7] = new ChessPiece[]{
-                new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.ROOK),
-                new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.KNIGHT),
-                new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.BISHOP),
-                new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.QUEEN),
-                new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.KING),
-                new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.BISHOP),
-                new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.KNIGHT),
-                new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.ROOK)
-        };
+    long occupancy(ChessGame.TeamColor color) {
+        return colorBoards[color.ordinal()];
     }
 
-    public ChessBoard deepCopy() {
-        ChessBoard copy = new ChessBoard();
+    long occupied() {
+        return colorBoards[0] | colorBoards[1];
+    }
 
-        for (int i = 0; i < 8; i++) {
-            for (int j = 0; j < 8; j++) {
-                ChessPiece piece = this.squares[i][j];
+    /**
+     * @return the square of the given side's king, or -1 if it has none. The king
+     * board is kept current by every change to the board, so this is always up to
+     * date; if a test board holds several kings of one color, the lowest square wins
+     */
+    int kingSquare(ChessGame.TeamColor color) {
+        long kings = pieceBoards[index(color, ChessPiece.PieceType.KING)];
+        return kings == 0 ? -1 : Long.numberOfTrailingZeros(kings);
+    }
 
-                if (piece != null) {
-                    copy.squares[i][j] =
-                            new ChessPiece(piece.getTeamColor(), piece.getPieceType());
-                } else {
-                    copy.squares[i][j] = null;
-                }
-            }
-        }
+    /**
+     * @return true if any piece of the given color attacks the square
+     */
+    boolean isAttacked(int square, ChessGame.TeamColor by) {
+        return isAttacked(square, by, occupied());
+    }
 
+    /**
+     * Same as {@link #isAttacked(int, ChessGame.TeamColor)}, but sliding attacks are
+     * traced through the given occupancy instead of the board's own
+     */
+    boolean isAttacked(int square, ChessGame.TeamColor by, long occupied) {
+        int base = by.ordinal() * TYPES;
+        long queens = pieceBoards[base + ChessPiece.PieceType.QUEEN.ordinal()];
+        return (Bitboards.knightAttacks(square) & pieceBoards[base + ChessPiece.PieceType.KNIGHT.ordinal()]) != 0
+                || (Bitboards.pawnAttacks(square, ChessGame.opponent(by))
+                        & pieceBoards[base + ChessPiece.PieceType.PAWN.ordinal()]) != 0
+                || (Bitboards.kingAttacks(square) & pieceBoards[base + ChessPiece.PieceType.KING.ordinal()]) != 0
+                || (Bitboards.bishopAttacks(square, occupied)
+                        & (pieceBoards[base + ChessPiece.PieceType.BISHOP.ordinal()] | queens)) != 0
+                || (Bitboards.rookAttacks(square, occupied)
+                        & (pieceBoards[base + ChessPiece.PieceType.ROOK.ordinal()] | queens)) != 0;
+    }
+
+    /**
+     * @return every piece of the given color that attacks the square
+     */
+    long attackers(int square, ChessGame.TeamColor by, long occupied) {
+        int base = by.ordinal() * TYPES;
+        long queens = pieceBoards[base + ChessPiece.PieceType.QUEEN.ordinal()];
+        return (Bitboards.knightAttacks(square) & pieceBoards[base + ChessPiece.PieceType.KNIGHT.ordinal()])
+                | (Bitboards.pawnAttacks(square, ChessGame.opponent(by))
+                        & pieceBoards[base + ChessPiece.PieceType.PAWN.ordinal()])
+                | (Bitboards.kingAttacks(square) & pieceBoards[base + ChessPiece.PieceType.KING.ordinal()])
+                | (Bitboards.bishopAttacks(square, occupied)
+                        & (pieceBoards[base + ChessPiece.PieceType.BISHOP.ordinal()] | queens))
+                | (Bitboards.rookAttacks(square, occupied)
+                        & (pieceBoards[base + ChessPiece.PieceType.ROOK.ordinal()] | queens));
+    }
+
+    /**
+     * Sets the board to the default starting board
+     * (How the game of chess normally starts)
+     */
+    public void resetBoard() {
+        Arrays.fill(pieceBoards, 0L);
+        setHomeRow(ChessGame.TeamColor.WHITE, 0);
+        setHomeRow(ChessGame.TeamColor.BLACK, 56);
+        pieceBoards[index(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.PAWN)] = Bitboards.RANK_2;
+        pieceBoards[index(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.PAWN)] = Bitboards.RANK_7;
+        colorBoards[0] = Bitboards.RANK_1 | Bitboards.RANK_2;
+        colorBoards[1] = Bitboards.RANK_7 | Bitboards.RANK_8;
+        zobrist = Zobrist.hash(pieceBoards);
+        int[] evaluation = Evaluation.recompute(pieceBoards);
+        middlegame = evaluation[0];
+        endgame = evaluation[1];
+        phase = evaluation[2];
+    }
+
+    private void setHomeRow(ChessGame.TeamColor color, int shift) {
+        pieceBoards[index(color, ChessPiece.PieceType.ROOK)] = 0x81L << shift;
+        pieceBoards[index(color, ChessPiece.PieceType.KNIGHT)] = 0x42L << shift;
+        pieceBoards[index(color, ChessPiece.PieceType.BISHOP)] = 0x24L << shift;
+        pieceBoards[index(color, ChessPiece.PieceType.QUEEN)] = 0x08L << shift;
+        pieceBoards[index(color, ChessPiece.PieceType.KING)] = 0x10L << shift;
+    }
+
+    public ChessBoard deepCopy() {
+        ChessBoard copy = new ChessBoard();
+        copy.pieceBoards = pieceBoards.clone();
+        copy.colorBoards = colorBoards.clone();
+        copy.zobrist = zobrist;
+        copy.middlegame = middlegame;
+        copy.endgame = endgame;
+        copy.phase = phase;
         return copy;
     }
 
@@ -116,13 +301,13 @@ public class ChessBoard {
     @Override
     public String toString() {
         StringBuilder debug= new StringBuilder();
-        for(int i = 0; i <=7;i++){
-            for(int j = 0; j <= 7; j++){
-                debug.append(squares[i][j]);
+        for(int i = 1; i <= 8; i++){
+            for(int j = 1; j <= 8; j++){
+                debug.append(getPiece(ChessPosition.of(i, j)));
             }
         }
         return "ChessBoard{" +
                 "squares=" + debug +
                 '}';
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,110 @@
+package chess;
+
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+
+/**
+ * Writes a {@link ChessBoard} as the original {@code squares} layout, an 8x8 array of
+ * pieces indexed by row then column from a1, with null for empty squares. Stored games
+ * and {@code LoadGame} messages keep that format whatever the board holds internally,
+ * and a board read back is rebuilt piece by piece, so its derived state is always current.
+ */
+final class ChessBoardAdapter extends TypeAdapter<ChessBoard> {
+
+    private static final ChessGame.TeamColor[] COLORS = ChessGame.TeamColor.values();
+    private static final ChessPiece.PieceType[] TYPES = ChessPiece.PieceType.values();
+
+    @Override
+    public void write(JsonWriter out, ChessBoard board) throws IOException {
+        if (board == null) {
+            out.nullValue();
+            return;
+        }
+        out.beginObject().name("squares").beginArray();
+        for (int row = 1; row <= 8; row++) {
+            out.beginArray();
+            for (int col = 1; col <= 8; col++) {
+                int index = board.pieceIndex(Bitboards.square(row, col));
+                if (index < 0) {
+                    out.nullValue();
+                } else {
+                    out.beginObject()
+                            .name("pieceColor").value(COLORS[index / TYPES.length].name())
+                            .name("type").value(TYPES[index % TYPES.length].name())
+                            .endObject();
+                }
+            }
+            out.endArray();
+        }
+        out.endArray().endObject();
+    }
+
+    @Override
+    public ChessBoard read(JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+        ChessBoard board = new ChessBoard();
+        in.beginObject();
+        while (in.hasNext()) {
+            if (in.nextName().equals("squares") && in.peek() != JsonToken.NULL) {
+                readSquares(in, board);
+            } else {
+                in.skipValue();
+            }
+        }
+        in.endObject();
+        return board;
+    }
+
+    private static void readSquares(JsonReader in, ChessBoard board) throws IOException {
+        in.beginArray();
+        for (int row = 1; in.hasNext(); row++) {
+            in.beginArray();
+            for (int col = 1; in.hasNext(); col++) {
+                if (in.peek() == JsonToken.NULL) {
+                    in.nextNull();
+                    continue;
+                }
+                ChessPiece piece = readPiece(in);
+                if (row > 8 || col > 8) {
+                    throw new IOException("board square out of range: " + row + "," + col);
+                }
+                board.place(ChessBoard.index(piece.getTeamColor(), piece.getPieceType()), Bitboards.square(row, col));
+            }
+            in.endArray();
+        }
+        in.endArray();
+    }
+
+    private static ChessPiece readPiece(JsonReader in) throws IOException {
+        ChessGame.TeamColor color = null;
+        ChessPiece.PieceType type = null;
+        in.beginObject();
+        while (in.hasNext()) {
+            switch (in.nextName()) {
+                case "pieceColor" -> color = constant(ChessGame.TeamColor.class, in.nextString());
+                case "type" -> type = constant(ChessPiece.PieceType.class, in.nextString());
+                default -> in.skipValue();
+            }
+        }
+        in.endObject();
+        if (color == null || type == null) {
+            throw new IOException("board piece needs pieceColor and type");
+        }
+        return ChessPiece.of(color, type);
+    }
+
+    private static <E extends Enum<E>> E constant(Class<E> type, String name) throws IOException {
+        try {
+            return Enum.valueOf(type, name);
+        } catch (IllegalArgumentException e) {
+            throw new IOException("unknown " + type.getSimpleName() + " " + name, e);
+        }
+    }
+}
@@ -1,5 +1,7 @@
 package chess;
 
+import com.google.gson.annotations.JsonAdapter;
+
 import java.util.Collection;
 import java.util.ArrayList;
 import java.util.Objects;
@@ -8,11 +10,38 @@ import java.util.Objects;
  * <p>
  * Note: You can add to this class, but you may not alter
  * signature of the existing methods.
+ * <p>
+ * Games are serialized by {@link ChessGameAdapter}, which adds the positions that
+ * still count toward repetition.
  */
+@JsonAdapter(ChessGameAdapter.class)
 public class ChessGame {
 
     private TeamColor currentTurn = TeamColor.WHITE;
-    private ChessBoard board = new ChessBoard();
+    private ChessBoard board;
+
+    // packed-move scratch list for generating without allocating, one per thread
+    private static final ThreadLocal<MoveList> SCRATCH = ThreadLocal.withInitial(MoveList::new);
+
+    // legal moves of each color for the position identified by cachedBoard and cachedKey;
+    // checking the key catches edits made through getBoard()
+    private transient ChessBoard cachedBoard;
+    private transient long cachedKey;
+    private transient int cachedColors;
+    private transient MoveList[] cachedMoves;
+
+    // plies of the fifty-move rule
+    private static final int FIFTY_MOVES = 100;
+    // positions kept for repetition: more than the fifty-move rule allows between captures
+    // and pawn moves, and a power of two so the ring index is a mask
+    static final int HISTORY = 128;
+
+    // keys of the positions before each move since the last capture or pawn move, in a
+    // ring indexed by historyCount; the adapter saves only the live entries
+    private transient long[] history;
+    // keys pushed into the ring since it was last cleared
+    private transient int historyCount;
+    private int halfmoveClock;
 
     @Override
     public boolean equals(Object o) {
@@ -20,16 +49,63 @@ public class ChessGame {
             return false;
         }
         ChessGame chessGame = (ChessGame) o;
+        if (zobristKey() != chessGame.zobristKey()) {
+            return false;
+        }
         return currentTurn == chessGame.currentTurn && Objects.equals(board, chessGame.board);
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(currentTurn, board);
+        return Long.hashCode(zobristKey());
+    }
+
+    /**
+     * @return a 64-bit Zobrist key of the position: the board's key combined with
+     * the side to move
+     */
+    public long zobristKey() {
+        long key = board == null ? 0 : board.zobristKey();
+        return currentTurn == TeamColor.BLACK ? key ^ Zobrist.SIDE : key;
     }
     public ChessGame() {
+    this.board = new ChessBoard();
     this.board.resetBoard();
     }
+
+    ChessGame(ChessBoard board, TeamColor currentTurn, int halfmoveClock) {
+        this.board = board;
+        this.currentTurn = currentTurn;
+        this.halfmoveClock = halfmoveClock;
+    }
+
+    /**
+     * Creates a game from a position in Forsyth-Edwards Notation. The piece placement,
+     * side to move and halfmove clock fields are used; castling, en passant and the
+     * fullmove number are ignored.
+     *
+     * @throws IllegalArgumentException if the placement, side to move or halfmove clock
+     *                                  is malformed
+     */
+    public static ChessGame fromFen(String fen) {
+        return Fen.parse(fen);
+    }
+
+    /**
+     * @return the position in Forsyth-Edwards Notation
+     */
+    public String toFen() {
+        StringBuilder out = new StringBuilder(90);
+        appendFen(out);
+        return out.toString();
+    }
+
+    /**
+     * Appends the position in Forsyth-Edwards Notation, so bulk exports can reuse one builder
+     */
+    public void appendFen(StringBuilder out) {
+        Fen.write(this, out);
+    }
     /**
      * @return Which team's turn it is
      */
@@ -43,6 +119,7 @@ public class ChessGame {
      */
     public void setTeamTurn(TeamColor team) {
             currentTurn = team;
+            invalidateMoves();
     }
     /**
      * Enum identifying the 2 possible teams in a chess game
@@ -60,34 +137,18 @@ public class ChessGame {
      */
     public Collection<ChessMove> validMoves(ChessPosition startPosition) {
         ChessPiece piece = board.getPiece(startPosition);
-        ArrayList<ChessMove> moves;
-        moves = new ArrayList<>();
-        ArrayList<ChessMove> movesToCheck;
-        movesToCheck = new ArrayList<>();
-        if(piece != null){
-            //get all moves before check checks
-            movesToCheck.addAll(piece.pieceMoves(board, startPosition));
-            //make a copy of the board and for all moves make sure it doesn't put own king in check or can't get king out of check
-            for(ChessMove move : movesToCheck){
-                ChessBoard copy = board.deepCopy();
-                makeMovetemp(move, copy);
-                if(!isInCheck(piece.getTeamColor(), copy)){
-                    moves.add(move);
-                }
+        if(piece == null){
+            return null;
+        }
+        MoveList all = legalMoves(piece.getTeamColor());
+        int from = Bitboards.square(startPosition);
+        ArrayList<ChessMove> moves = new ArrayList<>();
+        for (int i = 0; i < all.size(); i++) {
+            if (PackedMove.from(all.get(i)) == from) {
+                moves.add(PackedMove.toChessMove(all.get(i)));
             }
-            return moves;
-        }
-        return null;
-    }
-    public void makeMovetemp(ChessMove move, ChessBoard copy) {
-        ChessPiece piece = copy.getPiece(move.getStartPosition());
-        copy.addPiece(move.getStartPosition(),null);
-        if (move.getPromotionPiece() == null) {
-            copy.addPiece(move.getEndPosition(), piece);
-        } else{
-            ChessPiece promoted = new ChessPiece(piece.getTeamColor(),move.getPromotionPiece());
-            copy.addPiece(move.getEndPosition(),promoted);
         }
+        return moves;
     }
     /**
      * Makes a move in a chess game
@@ -96,25 +157,38 @@ public class ChessGame {
      * @throws InvalidMoveException if move is invalid
      */
     public void makeMove(ChessMove move) throws InvalidMoveException {
+        if (!Bitboards.isOnBoard(move.getStartPosition()) || !Bitboards.isOnBoard(move.getEndPosition())) {
+            throw new InvalidMoveException("off the board");
+        }
         if(board.getPiece(move.getStartPosition()) == null){
             throw new InvalidMoveException("empty");
         }
         ChessPiece piece = board.getPiece(move.getStartPosition());
-        ArrayList<Object> validMoves = new ArrayList<>();
-        validMoves.addAll(validMoves(move.getStartPosition()));
         if(piece.getTeamColor() != getTeamTurn()){
             throw new InvalidMoveException("wrong team");
         }
-        if(!validMoves.contains(move)){
+        int packed = PackedMove.of(move);
+        MoveList legal = cachedMoves(piece.getTeamColor());
+        if (legal == null) {
+            legal = generate(piece.getTeamColor(), 1L << PackedMove.from(packed));
+        }
+        if(!legal.containsIgnoringFlags(packed)){
             throw new InvalidMoveException("no valid moves");
         }
-        ChessPosition temp = move.getStartPosition();
-        board.addPiece(temp,null);
-        if (move.getPromotionPiece() == null) {
-            board.addPiece(move.getEndPosition(), piece);
-        } else{
-            ChessPiece promoted = new ChessPiece(piece.getTeamColor(),move.getPromotionPiece());
-            board.addPiece(move.getEndPosition(),promoted);
+        boolean irreversible = piece.getPieceType() == ChessPiece.PieceType.PAWN
+                || board.pieceIndex(PackedMove.to(packed)) >= 0;
+        long key = zobristKey();
+        board.makeMove(packed);
+        invalidateMoves();
+        if (irreversible) {
+            halfmoveClock = 0;
+            historyCount = 0;
+        } else {
+            if (history == null) {
+                history = new long[HISTORY];
+            }
+            history[historyCount++ & HISTORY - 1] = key;
+            halfmoveClock++;
         }
         if(piece.getTeamColor() == TeamColor.WHITE) {
             setTeamTurn(TeamColor.BLACK);
@@ -123,16 +197,8 @@ public class ChessGame {
         }
     }
     public ChessPosition findKing(TeamColor teamColor, ChessBoard copy){
-        for(int i = 1; i <= 8; i++){
-            for(int j = 1; j <= 8; j++){
-                ChessPiece temp = copy.getPiece(new ChessPosition(i,j));
-                if(temp == null){
-                } else if(temp.equals(new ChessPiece(teamColor, ChessPiece.PieceType.KING))){
-                    return new ChessPosition(i,j);
-                }
-            }
-        }
-        return null;
+        int king = copy.kingSquare(teamColor);
+        return king < 0 ? null : Bitboards.position(king);
     }
     /**
      * Determines if the given team is in check
@@ -143,305 +209,111 @@ public class ChessGame {
     public boolean isInCheck(TeamColor teamColor) {
         return isInCheck(teamColor, board);
     }
+    /**
+     * A side without a king is never in check. With more than one king, only the
+     * one on the lowest square counts
+     */
     public boolean isInCheck(TeamColor teamColor, ChessBoard board) {
-        ChessPosition king;
-        if(teamColor == TeamColor.BLACK){
-             king = findKing(TeamColor.BLACK, board);
-        }
-        else{
-            king = findKing(TeamColor.WHITE, board);
-        }
-        if(bishopCheck(board,king,teamColor)){
-            return true;
-        }
-        if(rookCheck(board,king,teamColor)){
-            return true;
-        }
-        if (knightCheck(board, king, teamColor)) {
-            return true;
-        }
-        if(pawnCheck(board, king, teamColor)){
-            return true;
-        }
-        return kingCheck(board, king, teamColor);
+        int king = board.kingSquare(teamColor);
+        return king >= 0 && board.isAttacked(king, opponent(teamColor));
     }
     public boolean bishopCheck(ChessBoard board, ChessPosition myPosition, TeamColor pieceColor) {
-
-        int i = myPosition.getRow()+1;
-        int j = myPosition.getColumn()+1;
-        while (i <= 8 && j <= 8) {
-            ChessPiece otherPiece = board.getPiece(new ChessPosition(i,j));
-            if(otherPiece == null) {
-            i++;
-            j++;
-            } else if(otherPiece.getTeamColor()!=pieceColor && (otherPiece.getPieceType() == ChessPiece.PieceType.BISHOP
-                    || otherPiece.getPieceType() == ChessPiece.PieceType.QUEEN)){
-                return true;
-            } else{
-                break;
-            }
-        }
-
-        i = myPosition.getRow()-1;
-        j = myPosition.getColumn()+1;
-        while (i >= 1 && j <= 8) {
-            ChessPiece otherPiece = board.getPiece(new ChessPosition(i,j));
-            if(otherPiece == null) {
-            i--;
-            j++;
-            } else if(otherPiece.getTeamColor()!=pieceColor && (otherPiece.getPieceType() == ChessPiece.PieceType.BISHOP
-                    || otherPiece.getPieceType() == ChessPiece.PieceType.QUEEN)){
-                return true;
-            } else{
-                break;
-            }
-        }
-
-        i = myPosition.getRow()+1;
-        j = myPosition.getColumn()-1;
-        while (i <= 8 && j >= 1) {
-            ChessPiece otherPiece = board.getPiece(new ChessPosition(i,j));
-            if(otherPiece == null) {
-                i++;
-                j--;
-            } else if(otherPiece.getTeamColor()!=pieceColor && (otherPiece.getPieceType() == ChessPiece.PieceType.BISHOP
-                    || otherPiece.getPieceType() == ChessPiece.PieceType.QUEEN)){
-                return true;
-            } else{
-                break;
-            }
-        }
-
-        i = myPosition.getRow()-1;
-        j = myPosition.getColumn()-1;
-        while (i >=1 && j >=1) {
-            ChessPiece otherPiece = board.getPiece(new ChessPosition(i,j));
-            if(otherPiece == null) {
-                i--;
-                j--;
-            } else if(otherPiece.getTeamColor()!=pieceColor && (otherPiece.getPieceType() == ChessPiece.PieceType.BISHOP
-                    || otherPiece.getPieceType() == ChessPiece.PieceType.QUEEN)){
-                return true;
-            } else{
-                break;
-            }
-        }
-        return false;
+        TeamColor enemy = opponent(pieceColor);
+        long attackers = board.pieces(enemy, ChessPiece.PieceType.BISHOP) | board.pieces(enemy, ChessPiece.PieceType.QUEEN);
+        int square = Bitboards.square(myPosition);
+        return (Bitboards.bishopAttacks(square, board.occupied()) & attackers) != 0;
     }
     public boolean rookCheck(ChessBoard board, ChessPosition myPosition, TeamColor pieceColor){
-
-        int i = myPosition.getRow()+1;
-        int j = myPosition.getColumn();
-        while (i <= 8) {
-            ChessPiece otherPiece = board.getPiece(new ChessPosition(i,j));
-            if(otherPiece == null) {
-                i++;
-            } else if(otherPiece.getTeamColor()!=pieceColor && (otherPiece.getPieceType() == ChessPiece.PieceType.ROOK
-                    || otherPiece.getPieceType() == ChessPiece.PieceType.QUEEN)){
-                return true;
-            } else{
-                break;
-            }
-        }
-
-        i = myPosition.getRow()-1;
-        j = myPosition.getColumn();
-        while (i >= 1) {
-            ChessPiece otherPiece = board.getPiece(new ChessPosition(i,j));
-            if(otherPiece == null) {
-                i--;
-            } else if(otherPiece.getTeamColor()!=pieceColor && (otherPiece.getPieceType() == ChessPiece.PieceType.ROOK
-                    || otherPiece.getPieceType() == ChessPiece.PieceType.QUEEN)){
-                return true;
-            } else{
-                break;
-            }
-        }
-
-        i = myPosition.getRow();
-        j = myPosition.getColumn()+1;
-        while (j <= 8) {
-            ChessPiece otherPiece = board.getPiece(new ChessPosition(i,j));
-            if(otherPiece == null) {
-                j++;
-            } else if(otherPiece.getTeamColor()!=pieceColor && (otherPiece.getPieceType() == ChessPiece.PieceType.ROOK ||
-                    otherPiece.getPieceType() == ChessPiece.PieceType.QUEEN)){
-                return true;
-            } else{
-                break;
-            }
-        }
-
-        i = myPosition.getRow();
-        j = myPosition.getColumn()-1;
-        while (j >= 1) {
-            ChessPiece otherPiece = board.getPiece(new ChessPosition(i,j));
-            if(otherPiece == null) {
-                j--;
-            } else if(otherPiece.getTeamColor()!=pieceColor && (otherPiece.getPieceType() == ChessPiece.PieceType.ROOK ||
-                    otherPiece.getPieceType() == ChessPiece.PieceType.QUEEN)){
-                return true;
-            } else{
-                break;
-            }
-        }
-        return false;
+        TeamColor enemy = opponent(pieceColor);
+        long attackers = board.pieces(enemy, ChessPiece.PieceType.ROOK) | board.pieces(enemy, ChessPiece.PieceType.QUEEN);
+        int square = Bitboards.square(myPosition);
+        return (Bitboards.rookAttacks(square, board.occupied()) & attackers) != 0;
     }
-    public boolean rightCheck(ChessBoard board, ChessPosition myPosition, TeamColor pieceColor, int i, int j){
-        if (j+1 <= 8) {
-            ChessPiece otherPiece = board.getPiece(new ChessPosition(i, j + 1));
-            if (otherPiece == null) {
-            } else if (otherPiece.getTeamColor() != pieceColor && otherPiece.getPieceType() == ChessPiece.PieceType.KNIGHT) {
-                return true;
-            }
-        }
-        return false;
-    }
-    public boolean leftCheck(ChessBoard board, ChessPosition myPosition, TeamColor pieceColor, int i, int j){
-        if (j-1 >= 1){
-            ChessPiece otherPiece = board.getPiece(new ChessPosition(i, j-1));
-            if (otherPiece == null) {
-            } else if (otherPiece.getTeamColor()!=pieceColor && otherPiece.getPieceType() == ChessPiece.PieceType.KNIGHT) {
-                return true;
-            }
-        }
-        return false;
+    public boolean knightCheck(ChessBoard board, ChessPosition myPosition, TeamColor pieceColor){
+        int square = Bitboards.square(myPosition);
+        return (Bitboards.knightAttacks(square) & board.pieces(opponent(pieceColor), ChessPiece.PieceType.KNIGHT)) != 0;
     }
-    public boolean upCheck(ChessBoard board, ChessPosition myPosition, TeamColor pieceColor, int i, int j){
-        if (i+1 <= 8){
-            ChessPiece otherPiece = board.getPiece(new ChessPosition(i+1, j));
-            if (otherPiece == null) {
-            } else if (otherPiece.getTeamColor()!=pieceColor && otherPiece.getPieceType() == ChessPiece.PieceType.KNIGHT) {
-                return true;
-            }
-        }
-        return false;
+    public boolean pawnCheck(ChessBoard board, ChessPosition myPosition, TeamColor pieceColor){
+        // a pawn attacks the king exactly when a pawn of the king's color on the king's square would attack it
+        int square = Bitboards.square(myPosition);
+        return (Bitboards.pawnAttacks(square, pieceColor) & board.pieces(opponent(pieceColor), ChessPiece.PieceType.PAWN)) != 0;
     }
-    public boolean downCheck(ChessBoard board, ChessPosition myPosition, TeamColor pieceColor, int i, int j){
-        if (i-1 >= 1) {
-            ChessPiece otherPiece = board.getPiece(new ChessPosition(i - 1, j));
-            if (otherPiece == null) {
-            } else if (otherPiece.getTeamColor() != pieceColor && otherPiece.getPieceType() == ChessPiece.PieceType.KNIGHT) {
-                return true;
-            }
-        }
-        return false;
+    public boolean kingCheck(ChessBoard board, ChessPosition myPosition, TeamColor pieceColor) {
+        int square = Bitboards.square(myPosition);
+        return (Bitboards.kingAttacks(square) & board.pieces(opponent(pieceColor), ChessPiece.PieceType.KING)) != 0;
     }
 
-    public boolean knightCheck(ChessBoard board, ChessPosition myPosition, TeamColor pieceColor){
+    static TeamColor opponent(TeamColor teamColor) {
+        return teamColor == TeamColor.WHITE ? TeamColor.BLACK : TeamColor.WHITE;
+    }
 
-        int i = myPosition.getRow()+2;
-        int j = myPosition.getColumn();
-        if (i <= 8) {
-            if(rightCheck(board,myPosition,pieceColor,i,j)){return true;}
-            if(leftCheck(board,myPosition,pieceColor,i,j)){return true;}
-        }
+    public Collection<ChessMove> getAllValidMoves(TeamColor teamColor){
+        return toChessMoves(legalMoves(teamColor));
+    }
 
-        i = myPosition.getRow()-2;
-        j = myPosition.getColumn();
-        if (i >= 1) {
-            if(rightCheck(board,myPosition,pieceColor,i,j)){return true;}
-            if(leftCheck(board,myPosition,pieceColor,i,j)){return true;}
+    /**
+     * @return every legal move of the team in the current position, generated once
+     * and reused until the position changes
+     */
+    MoveList legalMoves(TeamColor teamColor) {
+        MoveList moves = cachedMoves(teamColor);
+        if (moves != null) {
+            return moves;
         }
-
-        i = myPosition.getRow();
-        j = myPosition.getColumn()+2;
-        if (j <= 8) {
-            if(upCheck(board,myPosition,pieceColor,i,j)){return true;}
-            if(downCheck(board,myPosition,pieceColor,i,j)){return true;}
+        if (cachedBoard != board) {
+            cachedBoard = board;
+            cachedKey = board.zobristKey();
+            cachedColors = 0;
         }
-
-        i = myPosition.getRow();
-        j = myPosition.getColumn()-2;
-        if (j >= 1) {
-            if(upCheck(board,myPosition,pieceColor,i,j)){return true;}
-            if(downCheck(board,myPosition,pieceColor,i,j)){return true;}
+        if (cachedMoves == null) {
+            cachedMoves = new MoveList[]{new MoveList(), new MoveList()};
         }
-        return false;
+        moves = cachedMoves[teamColor.ordinal()];
+        moves.clear();
+        MoveGenerator.legalMoves(board, teamColor, board.occupancy(teamColor), moves);
+        cachedColors |= 1 << teamColor.ordinal();
+        return moves;
     }
-    public boolean pawnCheck(ChessBoard board, ChessPosition myPosition, TeamColor pieceColor){
-
-
-        if(pieceColor == ChessGame.TeamColor.BLACK) {
-
-            if (myPosition.getRow() != 1) {
 
-                if (myPosition.getColumn() != 1) {
-                    ChessPiece otherPiece = board.getPiece(new ChessPosition(myPosition.getRow() - 1, myPosition.getColumn() - 1));
-
-                    if (otherPiece == null) {
-                    } else if ((otherPiece.getTeamColor() == ChessGame.TeamColor.WHITE) && (otherPiece.getPieceType() == ChessPiece.PieceType.PAWN)) {
-                        return true;
-                    }
-                }
-
-                if (myPosition.getColumn() != 8) {
-                    ChessPiece otherPiece = board.getPiece(new ChessPosition(myPosition.getRow() - 1, myPosition.getColumn() + 1));
-                    if (otherPiece == null) {
-                    } else if ((otherPiece.getTeamColor() == ChessGame.TeamColor.WHITE) && (otherPiece.getPieceType() == ChessPiece.PieceType.PAWN)) {
-                        return true;
-                    }
-                }
-            }
+    // the cached moves of the team if they still describe the current position, else null
+    private MoveList cachedMoves(TeamColor teamColor) {
+        if (cachedBoard != board || cachedKey != board.zobristKey()) {
+            cachedBoard = null;
+            return null;
         }
+        return (cachedColors & 1 << teamColor.ordinal()) != 0 ? cachedMoves[teamColor.ordinal()] : null;
+    }
 
-        if(pieceColor == ChessGame.TeamColor.WHITE) {
-
-            if(myPosition.getRow() != 8) {
-
-                if (myPosition.getColumn() != 1) {
-                    ChessPiece otherPiece = board.getPiece(new ChessPosition(myPosition.getRow() + 1, myPosition.getColumn() - 1));
-
-                    if (otherPiece == null) {
-                    } else if ((otherPiece.getTeamColor() == ChessGame.TeamColor.BLACK) && (otherPiece.getPieceType() == ChessPiece.PieceType.PAWN)) {
-                        return true;
-                    }
-                }
-
-                if (myPosition.getColumn() != 8) {
-                    ChessPiece otherPiece = board.getPiece(new ChessPosition(myPosition.getRow() + 1, myPosition.getColumn() + 1));
-                    if (otherPiece == null) {
-                    } else if ((otherPiece.getTeamColor() == ChessGame.TeamColor.BLACK) && (otherPiece.getPieceType() == ChessPiece.PieceType.PAWN)) {
-                        return true;
-                    }
-                }
-            }
-        }
-        return false;
+    private void invalidateMoves() {
+        cachedBoard = null;
     }
-    public boolean kingCheck(ChessBoard board, ChessPosition myPosition, TeamColor pieceColor) {
 
-        int positioni = myPosition.getRow();
-        int positionj = myPosition.getColumn();
-        ChessPiece otherPiece;
-        for (int i = positioni - 1; i <= positioni + 1; i++) {
-            for (int j = positionj - 1; j <= positionj + 1; j++) {
-                if ((i >= 1 && i <= 8) && (j >= 1 && j <= 8) && !(i == positioni && j == positionj)) {
-                    otherPiece = board.getPiece(new ChessPosition(i,j));
-                    if (otherPiece == null) {
-                    } else if ((otherPiece.getTeamColor() != pieceColor) && otherPiece.getPieceType() == ChessPiece.PieceType.KING) {
-                        return true;
-                    }
-                }
-            }
-        }
-        return false;
+    // legal moves of the team's pieces on the from squares, in this thread's scratch list
+    private MoveList generate(TeamColor teamColor, long from) {
+        MoveList moves = SCRATCH.get();
+        moves.clear();
+        MoveGenerator.legalMoves(board, teamColor, from, moves);
+        return moves;
     }
 
-    public Collection<ChessMove> getAllValidMoves(TeamColor teamColor){
-        ArrayList<ChessMove> moves;
-        moves = new ArrayList<>();
-        for(int i = 1; i <=8; i++){
-            for(int j = 1; j <= 8; j++){
-                ChessPiece piece = board.getPiece(new ChessPosition(i,j));
-                if(piece == null){
-                } else if(piece.getTeamColor() == teamColor){
-                    moves.addAll(validMoves(new ChessPosition(i,j)));
-                }
-            }
+    private static ArrayList<ChessMove> toChessMoves(MoveList packed) {
+        ArrayList<ChessMove> moves = new ArrayList<>(packed.size());
+        for (int i = 0; i < packed.size(); i++) {
+            moves.add(PackedMove.toChessMove(packed.get(i)));
         }
         return moves;
     }
+    /**
+     * Determines if the given team has at least one legal move. This stops at the
+     * first move found, so it is much cheaper than listing every valid move.
+     *
+     * @param teamColor which team to check
+     * @return True if the team can make some move
+     */
+    public boolean hasAnyLegalMove(TeamColor teamColor) {
+        MoveList moves = cachedMoves(teamColor);
+        return moves != null ? !moves.isEmpty() : MoveGenerator.hasLegalMove(board, teamColor);
+    }
     /**
      * Determines if the given team is in checkmate
      *
@@ -452,10 +324,7 @@ public class ChessGame {
         if(!isInCheck(teamColor)){
             return false;
         }
-        ArrayList<ChessMove> moves;
-        moves = new ArrayList<>();
-        moves.addAll(getAllValidMoves(teamColor));
-        return moves.isEmpty();
+        return !hasAnyLegalMove(teamColor);
     }
     /**
      * Determines if the given team is in stalemate, which here is defined as having
@@ -466,20 +335,89 @@ public class ChessGame {
      */
     public boolean isInStalemate(TeamColor teamColor) {
         if(!isInCheck(teamColor)){
-            ArrayList<ChessMove> moves;
-            moves = new ArrayList<>();
-            moves.addAll(getAllValidMoves(teamColor));
-            return moves.isEmpty();
+            return !hasAnyLegalMove(teamColor);
+        }
+        return false;
+    }
+    /**
+     * Determines if the current position has occurred twice before since the last
+     * capture or pawn move, with the same side to move
+     *
+     * @return True if the position has been repeated three times
+     */
+    public boolean isDrawByRepetition() {
+        // only the last HISTORY positions are kept; a game must run on past the
+        // fifty-move rule to lose any that could still repeat
+        int window = Math.min(historyCount, HISTORY);
+        if (window < 4) {
+            return false;
+        }
+        long key = zobristKey();
+        int seen = 0;
+        // positions with the same side to move are an even number of plies back
+        for (int plies = 2; plies <= window; plies += 2) {
+            if (history[historyCount - plies & HISTORY - 1] == key && ++seen == 2) {
+                return true;
+            }
         }
         return false;
     }
     /**
-     * Sets this game's chessboard with a given board
+     * Determines if fifty moves by each side have passed without a capture or pawn move
+     *
+     * @return True if the fifty-move rule ends the game
+     */
+    public boolean isDrawByFiftyMoves() {
+        return halfmoveClock >= FIFTY_MOVES;
+    }
+    /**
+     * @return plies played since the last capture or pawn move
+     */
+    public int getHalfmoveClock() {
+        return halfmoveClock;
+    }
+    /**
+     * Sets this game's chessboard with a given board. Earlier positions no longer
+     * count toward repetition or the fifty-move rule.
      *
      * @param board the new board to use
      */
     public void setBoard(ChessBoard board) {
         this.board = board;
+        halfmoveClock = 0;
+        historyCount = 0;
+        invalidateMoves();
+    }
+
+    /**
+     * @return the keys that still count toward repetition, oldest first
+     */
+    long[] historyKeys() {
+        int window = Math.min(historyCount, HISTORY);
+        long[] keys = new long[window];
+        for (int i = 0; i < window; i++) {
+            keys[i] = history[historyCount - window + i & HISTORY - 1];
+        }
+        return keys;
+    }
+
+    /**
+     * Replaces the repetition history with the keys, oldest first, as a loaded game
+     *
+     * @throws IllegalArgumentException if there are more keys than the halfmove clock
+     *                                  or the ring allows
+     */
+    void restoreHistory(long[] keys) {
+        if (keys.length > Math.min(halfmoveClock, HISTORY)) {
+            throw new IllegalArgumentException("more history than the halfmove clock allows: " + keys.length);
+        }
+        if (keys.length > 0) {
+            if (history == null) {
+                history = new long[HISTORY];
+            }
+            System.arraycopy(keys, 0, history, 0, keys.length);
+        }
+        historyCount = keys.length;
     }
     /**
      * Gets the current chessboard
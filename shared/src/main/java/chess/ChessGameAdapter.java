@@ -0,0 +1,77 @@
+package chess;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import com.google.gson.TypeAdapter;
+import com.google.gson.TypeAdapterFactory;
+import com.google.gson.reflect.TypeToken;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+
+/**
+ * Serializes a {@link ChessGame} field by field as Gson would, plus a {@code history}
+ * array holding only the position keys that still count toward repetition, oldest
+ * first. Games without that array, such as ones stored before it existed, load with
+ * no repetition history.
+ */
+final class ChessGameAdapter implements TypeAdapterFactory {
+
+    private static final String HISTORY = "history";
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> TypeAdapter<T> create(Gson gson, TypeToken<T> type) {
+        if (type.getRawType() != ChessGame.class) {
+            return null;
+        }
+        TypeAdapter<ChessGame> fields = gson.getDelegateAdapter(this, TypeToken.get(ChessGame.class));
+        TypeAdapter<JsonElement> elements = gson.getAdapter(JsonElement.class);
+        return (TypeAdapter<T>) new TypeAdapter<ChessGame>() {
+            @Override
+            public void write(JsonWriter out, ChessGame game) throws IOException {
+                if (game == null) {
+                    out.nullValue();
+                    return;
+                }
+                JsonObject tree = fields.toJsonTree(game).getAsJsonObject();
+                long[] keys = game.historyKeys();
+                if (keys.length > 0) {
+                    JsonArray history = new JsonArray(keys.length);
+                    for (long key : keys) {
+                        history.add(key);
+                    }
+                    tree.add(HISTORY, history);
+                }
+                elements.write(out, tree);
+            }
+
+            @Override
+            public ChessGame read(JsonReader in) throws IOException {
+                JsonElement tree = elements.read(in);
+                if (tree == null || tree.isJsonNull()) {
+                    return null;
+                }
+                ChessGame game = fields.fromJsonTree(tree);
+                JsonElement history = tree.getAsJsonObject().get(HISTORY);
+                if (history != null && history.isJsonArray()) {
+                    JsonArray array = history.getAsJsonArray();
+                    long[] keys = new long[array.size()];
+                    for (int i = 0; i < keys.length; i++) {
+                        keys[i] = array.get(i).getAsLong();
+                    }
+                    try {
+                        game.restoreHistory(keys);
+                    } catch (IllegalArgumentException e) {
+                        throw new JsonParseException(e.getMessage(), e);
+                    }
+                }
+                return game;
+            }
+        };
+    }
+}
@@ -13,6 +13,16 @@ import java.util.Objects;
  */
 public class ChessPiece {
 
+    private static final ChessPiece[] PIECES = new ChessPiece[12];
+
+    static {
+        for (ChessGame.TeamColor color : ChessGame.TeamColor.values()) {
+            for (PieceType type : PieceType.values()) {
+                PIECES[color.ordinal() * 6 + type.ordinal()] = new ChessPiece(color, type);
+            }
+        }
+    }
+
     private final ChessGame.TeamColor pieceColor;
     private final PieceType type;
 
@@ -21,6 +31,16 @@ public class ChessPiece {
         this.type = type;
     }
 
+    /**
+     * Gets the shared instance for a piece. Pieces are immutable, so callers
+     * should prefer this over the constructor
+     *
+     * @return a piece equal to {@code new ChessPiece(pieceColor, type)}
+     */
+    public static ChessPiece of(ChessGame.TeamColor pieceColor, PieceType type) {
+        return PIECES[pieceColor.ordinal() * 6 + type.ordinal()];
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) {return true;}
@@ -76,392 +96,90 @@ public class ChessPiece {
      * @return Collection of valid moves
      */
     public List<ChessMove> bishopMoves(ChessBoard board, ChessPosition myPosition) {
-        List<ChessMove> moves = new ArrayList<>();
-
-        int i = myPosition.getRow()+1;
-        int j = myPosition.getColumn()+1;
-        while (i <= 8 && j <= 8) {
-            ChessPiece otherPiece = board.getPiece(new ChessPosition(i,j));
-            if(otherPiece == null) {
-                moves.add(new ChessMove(myPosition, new ChessPosition(i, j), null));
-                i++;
-                j++;
-            }
-            else if(otherPiece.pieceColor==this.pieceColor){
-                break;
-            }
-            else{
-                moves.add(new ChessMove(myPosition, new ChessPosition(i, j), null));
-                break;
-            }
-        }
-
-
-        i = myPosition.getRow()-1;
-        j = myPosition.getColumn()+1;
-        while (i >= 1 && j <= 8) {
-            ChessPiece otherPiece = board.getPiece(new ChessPosition(i,j));
-            if(otherPiece == null) {
-                moves.add(new ChessMove(myPosition, new ChessPosition(i, j), null));
-                i--;
-                j++;
-            }
-            else if(otherPiece.pieceColor==this.pieceColor){
-                break;
-            }
-            else{
-                moves.add(new ChessMove(myPosition, new ChessPosition(i, j), null));
-                break;
-            }
-        }
-
-        i = myPosition.getRow()+1;
-        j = myPosition.getColumn()-1;
-        while (i <= 8 && j >= 1) {
-            ChessPiece otherPiece = board.getPiece(new ChessPosition(i,j));
-            if(otherPiece == null) {
-                moves.add(new ChessMove(myPosition, new ChessPosition(i, j), null));
-                i++;
-                j--;
-            }
-            else if(otherPiece.pieceColor==this.pieceColor){
-                break;
-            }
-            else{
-                moves.add(new ChessMove(myPosition, new ChessPosition(i, j), null));
-                break;
-            }
-        }
-
-        i = myPosition.getRow()-1;
-        j = myPosition.getColumn()-1;
-        while (i >=1 && j >=1) {
-            ChessPiece otherPiece = board.getPiece(new ChessPosition(i,j));
-            if(otherPiece == null) {
-                moves.add(new ChessMove(myPosition, new ChessPosition(i, j), null));
-                i--;
-                j--;
-            }
-            else if(otherPiece.pieceColor==this.pieceColor){
-                break;
-            }
-            else{
-                moves.add(new ChessMove(myPosition, new ChessPosition(i, j), null));
-                break;
-            }
-        }
-
-        return moves;
+        int from = Bitboards.square(myPosition);
+        return movesTo(myPosition, Bitboards.bishopAttacks(from, board.occupied()) & ~board.occupancy(pieceColor));
     }
 
     public List<ChessMove> rookMoves(ChessBoard board, ChessPosition myPosition){
-        List<ChessMove> moves = new ArrayList<>();
-
-        int i = myPosition.getRow()+1;
-        int j = myPosition.getColumn();
-        while (i <= 8) {
-            ChessPiece otherPiece = board.getPiece(new ChessPosition(i,j));
-            if(otherPiece == null) {
-                moves.add(new ChessMove(myPosition, new ChessPosition(i, j), null));
-                i++;
-            }
-            else if(otherPiece.pieceColor==this.pieceColor){
-                break;
-            }
-            else{
-                moves.add(new ChessMove(myPosition, new ChessPosition(i, j), null));
-                break;
-            }
-        }
-
-        i = myPosition.getRow()-1;
-        j = myPosition.getColumn();
-        while (i >= 1) {
-            ChessPiece otherPiece = board.getPiece(new ChessPosition(i,j));
-            if(otherPiece == null) {
-                moves.add(new ChessMove(myPosition, new ChessPosition(i, j), null));
-                i--;
-            }
-            else if(otherPiece.pieceColor==this.pieceColor){
-                break;
-            }
-            else{
-                moves.add(new ChessMove(myPosition, new ChessPosition(i, j), null));
-                break;
-            }
-        }
-
-        i = myPosition.getRow();
-        j = myPosition.getColumn()+1;
-        while (j <= 8) {
-            ChessPiece otherPiece = board.getPiece(new ChessPosition(i,j));
-            if(otherPiece == null) {
-                moves.add(new ChessMove(myPosition, new ChessPosition(i, j), null));
-                j++;
-            }
-            else if(otherPiece.pieceColor==this.pieceColor){
-                break;
-            }
-            else{
-                moves.add(new ChessMove(myPosition, new ChessPosition(i, j), null));
-                break;
-            }
-        }
-
-        i = myPosition.getRow();
-        j = myPosition.getColumn()-1;
-        while (j >= 1) {
-            ChessPiece otherPiece = board.getPiece(new ChessPosition(i,j));
-            if(otherPiece == null) {
-                moves.add(new ChessMove(myPosition, new ChessPosition(i, j), null));
-                j--;
-            }
-            else if(otherPiece.pieceColor==this.pieceColor){
-                break;
-            }
-            else{
-                moves.add(new ChessMove(myPosition, new ChessPosition(i, j), null));
-                break;
-            }
-        }
-
-
-        return moves;
+        int from = Bitboards.square(myPosition);
+        return movesTo(myPosition, Bitboards.rookAttacks(from, board.occupied()) & ~board.occupancy(pieceColor));
     }
 
-    public List<ChessMove> kingMoves(ChessBoard board, ChessPosition myPosition) {
-        List<ChessMove> moves = new ArrayList<>();
-
-        int positioni = myPosition.getRow();
-        int positionj = myPosition.getColumn();
-        ChessPiece otherPiece;
-        for (int i = positioni - 1; i <= positioni + 1; i++) {
-            for (int j = positionj - 1; j <= positionj + 1; j++) {
-                if ((i >= 1 && i <= 8) && (j >= 1 && j <= 8) && !(i == positioni && j == positionj)) {
-                    otherPiece = board.getPiece(new ChessPosition(i,j));
-                    if (otherPiece == null) {
-                        moves.add(new ChessMove(myPosition, new ChessPosition(i, j), null));
-                    } else if (otherPiece.pieceColor == this.pieceColor) {
-                        break;
-                    } else {
-                        moves.add(new ChessMove(myPosition, new ChessPosition(i, j), null));
-                        break;
-                    }
-                }
-            }
-
-
-        }
-        return moves;
-    }
-
-    public List<ChessMove> checkLeft(ChessBoard board, ChessPosition myPosition, int i, int j){
-        List<ChessMove> moves = new ArrayList<>();
-        if (j-1 >= 1){
-            ChessPiece otherPiece = board.getPiece(new ChessPosition(i, j-1));
-            if (otherPiece == null) {
-                moves.add(new ChessMove(myPosition, new ChessPosition(i, j-1), null));
-            } else if (otherPiece.pieceColor == this.pieceColor) {
-            } else {
-                moves.add(new ChessMove(myPosition, new ChessPosition(i, j-1), null));
-            }
-        }
-        return moves;
-    }
-
-    public List<ChessMove> checkRight(ChessBoard board, ChessPosition myPosition, int i, int j){
-        List<ChessMove> moves = new ArrayList<>();
-        if (j+1 <= 8){
-            ChessPiece otherPiece = board.getPiece(new ChessPosition(i, j+1));
-            if (otherPiece == null) {
-                moves.add(new ChessMove(myPosition, new ChessPosition(i, j+1), null));
-            } else if (otherPiece.pieceColor == this.pieceColor) {
-            } else {
-                moves.add(new ChessMove(myPosition, new ChessPosition(i, j+1), null));
-            }
-        }
-        return moves;
-    }
-
-    public List<ChessMove> checkUp(ChessBoard board, ChessPosition myPosition, int i, int j){
-        List<ChessMove> moves = new ArrayList<>();
-        if (i+1 <= 8){
-            ChessPiece otherPiece = board.getPiece(new ChessPosition(i+1, j));
-            if (otherPiece == null) {
-                moves.add(new ChessMove(myPosition, new ChessPosition(i+1, j), null));
-            } else if (otherPiece.pieceColor == this.pieceColor) {
-            } else {
-                moves.add(new ChessMove(myPosition, new ChessPosition(i+1, j), null));
-            }
-        }
-        return moves;
+    public List<ChessMove> queenMoves(ChessBoard board, ChessPosition myPosition){
+        int from = Bitboards.square(myPosition);
+        return movesTo(myPosition, Bitboards.queenAttacks(from, board.occupied()) & ~board.occupancy(pieceColor));
     }
 
-    public List<ChessMove> checkDown(ChessBoard board, ChessPosition myPosition, int i, int j){
-        List<ChessMove> moves = new ArrayList<>();
-        if (i-1 >= 1){
-            ChessPiece otherPiece = board.getPiece(new ChessPosition(i-1, j));
-            if (otherPiece == null) {
-                moves.add(new ChessMove(myPosition, new ChessPosition(i-1, j), null));
-            } else if (otherPiece.pieceColor == this.pieceColor) {
-            } else {
-                moves.add(new ChessMove(myPosition, new ChessPosition(i-1, j), null));
-            }
-        }
-        return moves;
+    public List<ChessMove> kingMoves(ChessBoard board, ChessPosition myPosition) {
+        int from = Bitboards.square(myPosition);
+        return movesTo(myPosition, Bitboards.kingAttacks(from) & ~board.occupancy(pieceColor));
     }
 
     public List<ChessMove> knightMoves(ChessBoard board, ChessPosition myPosition){
-        List<ChessMove> moves = new ArrayList<>();
-
-        int i = myPosition.getRow()+2;
-        int j = myPosition.getColumn();
-        if (i <= 8) {
-            moves.addAll(checkRight(board,myPosition,i,j));
-            moves.addAll(checkLeft(board,myPosition,i,j));
-        }
-
-        i = myPosition.getRow()-2;
-        j = myPosition.getColumn();
-        if (i >= 1) {
-            moves.addAll(checkRight(board,myPosition,i,j));
-            moves.addAll(checkLeft(board,myPosition,i,j));
-        }
-
-        i = myPosition.getRow();
-        j = myPosition.getColumn()+2;
-        if (j <= 8) {
-            moves.addAll(checkUp(board,myPosition,i,j));
-            moves.addAll(checkDown(board,myPosition,i,j));
-        }
-
-        i = myPosition.getRow();
-        j = myPosition.getColumn()-2;
-        if (j >= 1) {
-            moves.addAll(checkUp(board,myPosition,i,j));
-            moves.addAll(checkDown(board,myPosition,i,j));
-        }
+        int from = Bitboards.square(myPosition);
+        return movesTo(myPosition, Bitboards.knightAttacks(from) & ~board.occupancy(pieceColor));
+    }
 
+    public List<ChessMove> pawnPromote(ChessPosition myPosition, ChessPosition newPosition){
+        List<ChessMove> moves = new ArrayList<>(4);
+        addPromotions(moves, myPosition, newPosition);
         return moves;
     }
 
-    public List<ChessMove> pawnPromote(ChessPosition myPosition, ChessPosition newPosition){
-        List<ChessMove> moves = new ArrayList<>();
+    private static void addPromotions(List<ChessMove> moves, ChessPosition myPosition, ChessPosition newPosition) {
         moves.add(new ChessMove(myPosition, newPosition, PieceType.KNIGHT));
         moves.add(new ChessMove(myPosition, newPosition, PieceType.ROOK));
         moves.add(new ChessMove(myPosition, newPosition, PieceType.BISHOP));
         moves.add(new ChessMove(myPosition, newPosition, PieceType.QUEEN));
-        return moves;
     }
 
     public List<ChessMove> pawnMoves(ChessBoard board, ChessPosition myPosition){
-        List<ChessMove> moves = new ArrayList<>();
-        if(pieceColor == ChessGame.TeamColor.BLACK) {
-            if (myPosition.getRow() == 7) {
-                ChessPiece otherPiece = board.getPiece(new ChessPosition(5, myPosition.getColumn()));
-                ChessPiece otherPiece2 = board.getPiece(new ChessPosition(6, myPosition.getColumn()));
-                if (otherPiece == null && otherPiece2 == null) {
-                    moves.add(new ChessMove(myPosition, new ChessPosition(myPosition.getRow() - 2, myPosition.getColumn()), null));
-                }
-            }
-            ChessPiece otherPiece = board.getPiece(new ChessPosition(myPosition.getRow() - 1, myPosition.getColumn()));
-            if (otherPiece == null) {
-                if (myPosition.getRow() - 1 == 1) {
-                    ChessPosition temp = new ChessPosition(myPosition.getRow() - 1, myPosition.getColumn());
-                    moves.addAll(pawnPromote(myPosition,temp));
-                } else {
-                    moves.add(new ChessMove(myPosition, new ChessPosition(myPosition.getRow() - 1, myPosition.getColumn()), null));
-                }
-            }
-            if(myPosition.getColumn() != 1) {
-                otherPiece = board.getPiece(new ChessPosition(myPosition.getRow() - 1, myPosition.getColumn() - 1));
-                if (otherPiece == null) {} else if (otherPiece.pieceColor == ChessGame.TeamColor.WHITE) {
-                    if (myPosition.getRow() - 1 == 1) {
-                        ChessPosition temp = new ChessPosition(myPosition.getRow() - 1, myPosition.getColumn() - 1);
-                        moves.addAll(pawnPromote(myPosition,temp));
-                    } else {
-                        moves.add(new ChessMove(myPosition, new ChessPosition(myPosition.getRow() - 1, myPosition.getColumn() - 1), null));
-                    }
-                }
-            }
-            if(myPosition.getColumn() != 8) {
-                otherPiece = board.getPiece(new ChessPosition(myPosition.getRow() - 1, myPosition.getColumn() + 1));
-                if (otherPiece == null) {} else if (otherPiece.pieceColor == ChessGame.TeamColor.WHITE) {
-                    if (myPosition.getRow() - 1 == 1) {
-                       ChessPosition temp = new ChessPosition(myPosition.getRow() - 1, myPosition.getColumn() + 1);
-                        moves.addAll(pawnPromote(myPosition,temp));
-                    } else {
-                        moves.add(new ChessMove(myPosition, new ChessPosition(myPosition.getRow() - 1, myPosition.getColumn() + 1), null));
-                    }
-                }
-            }
-        }
+        int square = Bitboards.square(myPosition);
+        long from = 1L << square;
+        long empty = ~board.occupied();
+        long targets;
+        long lastRow;
         if(pieceColor == ChessGame.TeamColor.WHITE){
-            if(myPosition.getRow() == 2){
-                ChessPiece otherPiece = board.getPiece(new ChessPosition(4, myPosition.getColumn()));
-                ChessPiece otherPiece2 = board.getPiece(new ChessPosition(6, myPosition.getColumn()));
-                if(otherPiece == null && otherPiece2 == null) {
-                    moves.add(new ChessMove(myPosition, new ChessPosition(myPosition.getRow() + 2, myPosition.getColumn()), null));
-                }
-            }
-                ChessPiece otherPiece = board.getPiece(new ChessPosition(myPosition.getRow()+1, myPosition.getColumn()));
-                if(otherPiece == null) {
-                    if(myPosition.getRow() + 1 == 8){
-                        ChessPosition temp = new ChessPosition(myPosition.getRow() + 1, myPosition.getColumn());
-                        moves.addAll(pawnPromote(myPosition,temp));
-                    } else{
-                        moves.add(new ChessMove(myPosition, new ChessPosition(myPosition.getRow() + 1, myPosition.getColumn()), null));
-                    }
-                }
-                if(myPosition.getColumn() != 1) {
-                    otherPiece = board.getPiece(new ChessPosition(myPosition.getRow() + 1, myPosition.getColumn() - 1));
-                    if (otherPiece == null) {
-                    } else if (otherPiece.pieceColor == ChessGame.TeamColor.BLACK) {
-                        if (myPosition.getRow() + 1 == 8) {
-                            ChessPosition temp =  new ChessPosition(myPosition.getRow() + 1, myPosition.getColumn() - 1);
-                            moves.addAll(pawnPromote(myPosition,temp));
-                        } else {
-                            moves.add(new ChessMove(myPosition, new ChessPosition(myPosition.getRow() + 1, myPosition.getColumn() - 1), null));
-                        }
-                    }
-                }
-                if(myPosition.getColumn() != 8) {
-                    otherPiece = board.getPiece(new ChessPosition(myPosition.getRow() + 1, myPosition.getColumn() + 1));
-                    if (otherPiece == null) {} else if (otherPiece.pieceColor == ChessGame.TeamColor.BLACK) {
-                        if (myPosition.getRow() + 1 == 8) {
-                            ChessPosition temp = new ChessPosition(myPosition.getRow() + 1, myPosition.getColumn() + 1);
-                            moves.addAll(pawnPromote(myPosition,temp));
-                        } else {
-                            moves.add(new ChessMove(myPosition, new ChessPosition(myPosition.getRow() + 1, myPosition.getColumn() - 1), null));
-                        }
-                    }
-                }
+            long single = (from << 8) & empty;
+            targets = single | ((single & Bitboards.RANK_3) << 8) & empty;
+            targets |= Bitboards.pawnAttacks(square, pieceColor) & board.occupancy(ChessGame.TeamColor.BLACK);
+            lastRow = Bitboards.RANK_8;
+        } else {
+            long single = (from >>> 8) & empty;
+            targets = single | ((single & Bitboards.RANK_6) >>> 8) & empty;
+            targets |= Bitboards.pawnAttacks(square, pieceColor) & board.occupancy(ChessGame.TeamColor.WHITE);
+            lastRow = Bitboards.RANK_1;
+        }
+        long promotions = targets & lastRow;
+        List<ChessMove> moves = new ArrayList<>(Long.bitCount(targets) + 3 * Long.bitCount(promotions));
+        addMoves(moves, myPosition, targets & ~lastRow);
+        for (; promotions != 0; promotions &= promotions - 1) {
+            addPromotions(moves, myPosition, Bitboards.position(Long.numberOfTrailingZeros(promotions)));
         }
         return moves;
     }
 
+    private List<ChessMove> movesTo(ChessPosition myPosition, long targets) {
+        List<ChessMove> moves = new ArrayList<>(Long.bitCount(targets));
+        addMoves(moves, myPosition, targets);
+        return moves;
+    }
+
+    private static void addMoves(List<ChessMove> moves, ChessPosition myPosition, long targets) {
+        for (; targets != 0; targets &= targets - 1) {
+            moves.add(new ChessMove(myPosition, Bitboards.position(Long.numberOfTrailingZeros(targets)), null));
+        }
+    }
+
     public Collection<ChessMove> pieceMoves(ChessBoard board, ChessPosition myPosition) {
         ChessPiece piece = board.getPiece(myPosition);
-        if (piece.getPieceType() == PieceType.BISHOP){
-            return bishopMoves(board, myPosition);
-        }
-        if (piece.getPieceType() == PieceType.ROOK){
-            return rookMoves(board, myPosition);
-        }
-        if (piece.getPieceType() == PieceType.QUEEN){
-            List<ChessMove> temp =  rookMoves(board, myPosition);
-            temp.addAll(bishopMoves( board, myPosition));
-            return temp;
-        }
-        if (piece.getPieceType() == PieceType.KING){
-            return kingMoves(board, myPosition);
-        }
-        if (piece.getPieceType() == PieceType.KNIGHT){
-            return knightMoves(board, myPosition);
-        }
-        if (piece.getPieceType() == PieceType.PAWN){
-            return pawnMoves(board, myPosition);
-        }
-        return List.of();
+        return switch (piece.getPieceType()) {
+            case BISHOP -> bishopMoves(board, myPosition);
+            case ROOK -> rookMoves(board, myPosition);
+            case QUEEN -> queenMoves(board, myPosition);
+            case KING -> kingMoves(board, myPosition);
+            case KNIGHT -> knightMoves(board, myPosition);
+            case PAWN -> pawnMoves(board, myPosition);
+        };
     }
 }
@@ -10,6 +10,14 @@ import java.util.Objects;
  */
 public class ChessPosition {
 
+    private static final ChessPosition[] POSITIONS = new ChessPosition[64];
+
+    static {
+        for (int i = 0; i < 64; i++) {
+            POSITIONS[i] = new ChessPosition(i / 8 + 1, i % 8 + 1);
+        }
+    }
+
     private final int row;
     private final int col;
 
@@ -18,6 +26,19 @@ public class ChessPosition {
     this.col = col;
     }
 
+    /**
+     * Gets the shared instance for a position. Positions on the board are cached, so
+     * callers that only read positions should prefer this over the constructor
+     *
+     * @return a position equal to {@code new ChessPosition(row, col)}
+     */
+    public static ChessPosition of(int row, int col) {
+        if (row < 1 || row > 8 || col < 1 || col > 8) {
+            return new ChessPosition(row, col);
+        }
+        return POSITIONS[(row - 1) * 8 + (col - 1)];
+    }
+
     /**
      * @return which row this position is in
      * 1 codes for the bottom row
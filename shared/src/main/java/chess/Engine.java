@@ -0,0 +1,140 @@
+package chess;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Chooses moves for a computer player.
+ * <p>
+ * The engine searches a copy of the game's board, so the game itself is never
+ * changed and one game can be searched while another thread reads it. Each call is
+ * independent, and calls for different games can run concurrently.
+ * <p>
+ * Searches share a transposition table: either one passed in, or a default table
+ * created on first use and sized by the {@code chess.engine.hashMb} system property.
+ * <p>
+ * With more than one thread in the {@link SearchLimits}, the search is Lazy SMP: the
+ * calling thread runs the main search while helper threads search the same position
+ * and share the table, and the deepest completed result wins. One thread always
+ * gives the same answer for the same position and table contents.
+ */
+public final class Engine {
+
+    private static final ExecutorService HELPERS = Executors.newCachedThreadPool(
+            Thread.ofPlatform().name("engine-helper-", 0).daemon().factory());
+
+    /**
+     * Lets another thread end a search early. The search notices within a few
+     * thousand nodes and returns the best move it has.
+     */
+    public static final class StopSignal {
+        private volatile boolean stopped;
+
+        public void stop() {
+            stopped = true;
+        }
+
+        public boolean isStopped() {
+            return stopped;
+        }
+    }
+
+    /**
+     * Outcome of a search
+     *
+     * @param move  the best move found, or null if the side to move has no legal move
+     * @param score centipawns for the side to move; mates score close to
+     *              {@code ±30000}
+     * @param depth deepest iteration the search completed, or 0 if it was stopped
+     *              before completing one, in which case the move is only the first
+     *              in search order and the score is 0
+     * @param nodes positions visited
+     * @param nanos time the search took
+     */
+    public record Result(ChessMove move, int score, int depth, long nodes, long nanos) {
+        public long nodesPerSecond() {
+            return nanos == 0 ? 0 : nodes * 1_000_000_000L / nanos;
+        }
+    }
+
+    private Engine() {
+    }
+
+    /**
+     * @return the best move for the side to move within the limits, or null if it
+     * has no legal move
+     */
+    public static ChessMove bestMove(ChessGame game, SearchLimits limits) {
+        return search(game, limits).move();
+    }
+
+    /**
+     * Plays the book's highest weighted move while the position is in the book, and
+     * searches once it is not
+     *
+     * @return the best move for the side to move, or null if it has no legal move
+     */
+    public static ChessMove bestMove(ChessGame game, SearchLimits limits, OpeningBook book) {
+        ChessMove move = book.bestMove(game);
+        return move != null ? move : bestMove(game, limits);
+    }
+
+    public static Result search(ChessGame game, SearchLimits limits) {
+        return search(game, limits, DefaultTable.TABLE);
+    }
+
+    public static Result search(ChessGame game, SearchLimits limits, TranspositionTable table) {
+        return search(game, limits, table, new StopSignal());
+    }
+
+    public static Result search(ChessGame game, SearchLimits limits, TranspositionTable table, StopSignal stop) {
+        long start = System.nanoTime();
+        long deadline = limits.millis() == 0 ? Long.MAX_VALUE : start + limits.millis() * 1_000_000L;
+        StopSignal finished = new StopSignal();
+        table.newSearch();
+
+        List<Future<Result>> helpers = new ArrayList<>(limits.threads() - 1);
+        for (int id = 1; id < limits.threads(); id++) {
+            Search helper = new Search(game.getBoard().deepCopy(), game.getTeamTurn(), limits, table, stop, finished,
+                    deadline, id);
+            helpers.add(HELPERS.submit(helper::run));
+        }
+        Result best = new Search(game.getBoard().deepCopy(), game.getTeamTurn(), limits, table, stop, finished,
+                deadline, 0).run();
+        if (helpers.isEmpty()) {
+            return best;
+        }
+
+        finished.stop();
+        long nodes = best.nodes();
+        for (Future<Result> helper : helpers) {
+            Result result = join(helper);
+            nodes += result.nodes();
+            // a helper that completed no iteration has nothing to offer, and never goes deeper than 0
+            if (result.depth() > 0 && result.depth() > best.depth() && result.move() != null) {
+                best = result;
+            }
+        }
+        return new Result(best.move(), best.score(), best.depth(), nodes, System.nanoTime() - start);
+    }
+
+    private static Result join(Future<Result> helper) {
+        try {
+            return helper.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("interrupted waiting for search helper", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("search helper failed", e.getCause());
+        }
+    }
+
+    // holder so the default table is only allocated if a search uses it
+    private static final class DefaultTable {
+        static final TranspositionTable TABLE = TranspositionTable.fromConfiguration();
+    }
+}
@@ -0,0 +1,134 @@
+package chess;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Locale;
+import java.util.Properties;
+
+/**
+ * Static evaluation in centipawns: material plus piece-square bonuses, kept as a
+ * middlegame and an endgame sum and blended by how much material is left.
+ * <p>
+ * {@link ChessBoard} keeps the two sums and the game phase up to date as pieces are
+ * placed and removed, so evaluating is a few arithmetic operations. The weights are
+ * read from {@code evaluation.properties} next to this class, so they can be tuned
+ * without code changes; {@link #recompute} scans the board for tests to compare against.
+ */
+final class Evaluation {
+
+    private static final String RESOURCE = "evaluation.properties";
+    private static final ChessPiece.PieceType[] TYPES = ChessPiece.PieceType.values();
+
+    // phase with every piece of the starting position on the board
+    static final int MAX_PHASE = 24;
+
+    // middlegame material indexed by PieceType ordinal, for exchange and ordering decisions
+    static final int[] VALUES = new int[TYPES.length];
+
+    // value of each board index on each square, from white's point of view
+    private static final int[] MIDDLEGAME = new int[2 * TYPES.length * 64];
+    private static final int[] ENDGAME = new int[2 * TYPES.length * 64];
+    // phase weight of each board index
+    private static final int[] PHASE = new int[2 * TYPES.length];
+
+    static {
+        Properties weights = new Properties();
+        try (InputStream in = Evaluation.class.getResourceAsStream(RESOURCE)) {
+            if (in == null) {
+                throw new IllegalStateException("missing resource " + RESOURCE);
+            }
+            weights.load(in);
+        } catch (IOException e) {
+            throw new IllegalStateException("cannot read " + RESOURCE, e);
+        }
+
+        for (ChessPiece.PieceType type : TYPES) {
+            String name = type.name().toLowerCase(Locale.ROOT);
+            VALUES[type.ordinal()] = number(weights, "mg.value." + name);
+            int phase = number(weights, "phase." + name);
+            fill(MIDDLEGAME, type, number(weights, "mg.value." + name), table(weights, "mg." + name));
+            fill(ENDGAME, type, number(weights, "eg.value." + name), table(weights, "eg." + name));
+            PHASE[ChessBoard.index(ChessGame.TeamColor.WHITE, type)] = phase;
+            PHASE[ChessBoard.index(ChessGame.TeamColor.BLACK, type)] = phase;
+        }
+    }
+
+    private Evaluation() {
+    }
+
+    private static void fill(int[] scores, ChessPiece.PieceType type, int value, int[] table) {
+        int white = ChessBoard.index(ChessGame.TeamColor.WHITE, type);
+        int black = ChessBoard.index(ChessGame.TeamColor.BLACK, type);
+        for (int square = 0; square < 64; square++) {
+            // the tables list row 8 first, so white reads them upside down and black as printed
+            scores[white * 64 + square] = value + table[square ^ 56];
+            scores[black * 64 + square] = -(value + table[square]);
+        }
+    }
+
+    private static int number(Properties weights, String key) {
+        String value = weights.getProperty(key);
+        if (value == null) {
+            throw new IllegalStateException(RESOURCE + " is missing " + key);
+        }
+        return Integer.parseInt(value.trim());
+    }
+
+    private static int[] table(Properties weights, String key) {
+        String value = weights.getProperty(key);
+        String[] cells = value == null ? new String[0] : value.trim().split("\\s+");
+        if (cells.length != 64) {
+            throw new IllegalStateException(RESOURCE + " needs 64 numbers for " + key);
+        }
+        int[] table = new int[64];
+        for (int i = 0; i < 64; i++) {
+            table[i] = Integer.parseInt(cells[i]);
+        }
+        return table;
+    }
+
+    static int middlegame(int index, int square) {
+        return MIDDLEGAME[index * 64 + square];
+    }
+
+    static int endgame(int index, int square) {
+        return ENDGAME[index * 64 + square];
+    }
+
+    static int phase(int index) {
+        return PHASE[index];
+    }
+
+    /**
+     * @return the score of the position for the given side, positive when it is ahead
+     */
+    static int evaluate(ChessBoard board, ChessGame.TeamColor side) {
+        int score = blend(board.middlegame, board.endgame, board.phase);
+        return side == ChessGame.TeamColor.WHITE ? score : -score;
+    }
+
+    /**
+     * Scans the whole board for the middlegame sum, endgame sum and phase that
+     * {@link ChessBoard} otherwise keeps incrementally
+     */
+    static int[] recompute(long[] pieceBoards) {
+        int middlegame = 0;
+        int endgame = 0;
+        int phase = 0;
+        for (int index = 0; index < pieceBoards.length; index++) {
+            for (long pieces = pieceBoards[index]; pieces != 0; pieces &= pieces - 1) {
+                int square = Long.numberOfTrailingZeros(pieces);
+                middlegame += middlegame(index, square);
+                endgame += endgame(index, square);
+                phase += PHASE[index];
+            }
+        }
+        return new int[]{middlegame, endgame, phase};
+    }
+
+    private static int blend(int middlegame, int endgame, int phase) {
+        // promotions can push the phase past the starting total
+        int weight = Math.min(phase, MAX_PHASE);
+        return (middlegame * weight + endgame * (MAX_PHASE - weight)) / MAX_PHASE;
+    }
+}
@@ -0,0 +1,159 @@
+package chess;
+
+import java.util.Arrays;
+
+/**
+ * Reads and writes positions in Forsyth-Edwards Notation.
+ * <p>
+ * Piece placement, side to move and the halfmove clock are used. Castling and en
+ * passant are not part of these rules, so those fields and the fullmove number are
+ * accepted but ignored when reading, and written as {@code - -} and {@code 1}.
+ * Parsing is one pass over the string that sets the piece bitboards directly, and
+ * writing appends to a caller's builder, so bulk conversions allocate little beyond
+ * the games themselves.
+ */
+final class Fen {
+
+    static final String START = "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w - - 0 1";
+
+    // longest halfmove clock accepted, far past any the fifty-move rule lets a game reach
+    private static final int MAX_CLOCK = 9999;
+
+    private static final ChessPiece.PieceType[] TYPES = ChessPiece.PieceType.values();
+    // board index of each piece letter, or -1
+    private static final int[] INDICES = new int[128];
+    // piece letter of each board index
+    private static final char[] LETTERS = new char[2 * TYPES.length];
+
+    static {
+        Arrays.fill(INDICES, -1);
+        for (ChessPiece.PieceType type : TYPES) {
+            char letter = switch (type) {
+                case KING -> 'k';
+                case QUEEN -> 'q';
+                case ROOK -> 'r';
+                case BISHOP -> 'b';
+                case KNIGHT -> 'n';
+                case PAWN -> 'p';
+            };
+            int white = ChessBoard.index(ChessGame.TeamColor.WHITE, type);
+            int black = ChessBoard.index(ChessGame.TeamColor.BLACK, type);
+            INDICES[Character.toUpperCase(letter)] = white;
+            INDICES[letter] = black;
+            LETTERS[white] = Character.toUpperCase(letter);
+            LETTERS[black] = letter;
+        }
+    }
+
+    private Fen() {
+    }
+
+    /**
+     * @throws IllegalArgumentException if the placement, side to move or halfmove clock
+     *                                  is malformed
+     */
+    static ChessGame parse(String fen) {
+        ChessBoard board = new ChessBoard();
+        int length = fen.length();
+        int i = skipSpaces(fen, 0);
+        int row = 8;
+        int col = 1;
+        boolean afterDigit = false;
+        for (; i < length && fen.charAt(i) > ' '; i++) {
+            char c = fen.charAt(i);
+            boolean digit = c >= '1' && c <= '8';
+            if (c == '/') {
+                if (col != 9) {
+                    throw new IllegalArgumentException("bad FEN row " + row + ": " + fen);
+                }
+                row--;
+                col = 1;
+            } else if (digit) {
+                // a run of empty squares is one digit, and it must fit in the rank
+                if (col + c - '0' > 9 || afterDigit) {
+                    throw new IllegalArgumentException("bad FEN row " + row + ": " + fen);
+                }
+                col += c - '0';
+            } else {
+                int index = c < INDICES.length ? INDICES[c] : -1;
+                if (index < 0 || row < 1 || col > 8) {
+                    throw new IllegalArgumentException("bad FEN placement: " + fen);
+                }
+                board.place(index, Bitboards.square(row, col));
+                col++;
+            }
+            afterDigit = digit;
+        }
+        if (row != 1 || col != 9) {
+            throw new IllegalArgumentException("bad FEN placement: " + fen);
+        }
+
+        ChessGame.TeamColor side = ChessGame.TeamColor.WHITE;
+        i = skipSpaces(fen, i);
+        if (i < length) {
+            char c = fen.charAt(i++);
+            if (c != 'w' && c != 'b' || i < length && fen.charAt(i) > ' ') {
+                throw new IllegalArgumentException("bad FEN side to move: " + fen);
+            }
+            side = c == 'b' ? ChessGame.TeamColor.BLACK : ChessGame.TeamColor.WHITE;
+        }
+
+        // castling and en passant fields are skipped
+        i = skipField(fen, skipSpaces(fen, i));
+        i = skipField(fen, skipSpaces(fen, i));
+        int clock = 0;
+        i = skipSpaces(fen, i);
+        for (; i < length && fen.charAt(i) > ' '; i++) {
+            char c = fen.charAt(i);
+            clock = clock * 10 + c - '0';
+            if (c < '0' || c > '9' || clock > MAX_CLOCK) {
+                throw new IllegalArgumentException("bad FEN halfmove clock: " + fen);
+            }
+        }
+        return new ChessGame(board, side, clock);
+    }
+
+    /**
+     * Appends the game's position to the builder
+     */
+    static void write(ChessGame game, StringBuilder out) {
+        ChessBoard board = game.getBoard();
+        for (int row = 8; row >= 1; row--) {
+            int empty = 0;
+            for (int col = 1; col <= 8; col++) {
+                int index = board.pieceIndex(Bitboards.square(row, col));
+                if (index < 0) {
+                    empty++;
+                    continue;
+                }
+                if (empty > 0) {
+                    out.append((char) ('0' + empty));
+                    empty = 0;
+                }
+                out.append(LETTERS[index]);
+            }
+            if (empty > 0) {
+                out.append((char) ('0' + empty));
+            }
+            if (row > 1) {
+                out.append('/');
+            }
+        }
+        out.append(game.getTeamTurn() == ChessGame.TeamColor.WHITE ? " w" : " b").append(" - - ")
+                .append(game.getHalfmoveClock()).append(" 1");
+    }
+
+    private static int skipField(String fen, int i) {
+        while (i < fen.length() && fen.charAt(i) > ' ') {
+            i++;
+        }
+        return i;
+    }
+
+    private static int skipSpaces(String fen, int i) {
+        while (i < fen.length() && fen.charAt(i) <= ' ') {
+            i++;
+        }
+        return i;
+    }
+}
@@ -0,0 +1,199 @@
+package chess;
+
+import java.util.SplittableRandom;
+
+/**
+ * Magic bitboard attack tables for rooks and bishops.
+ * <p>
+ * For each square, the blockers that can affect the slider's attacks (its rays minus
+ * the board edge) are multiplied by a magic number, and the top bits of the product
+ * index a table of precomputed attack sets. The magics below were found with
+ * {@link #main}; the tables are filled from them at class load.
+ */
+final class Magics {
+
+    private static final int[][] ROOK_DIRECTIONS = {{1, 0}, {-1, 0}, {0, 1}, {0, -1}};
+    private static final int[][] BISHOP_DIRECTIONS = {{1, 1}, {1, -1}, {-1, 1}, {-1, -1}};
+
+    private static final long[] ROOK_MAGICS = {
+            0x1480001080400262L, 0x0240001000402000L, 0x0100081100402000L, 0x0080080004801002L,
+            0x7A00045009020020L, 0x0200040885020010L, 0x2100020020840100L, 0x028000A10004C080L,
+            0xA0008000A0804000L, 0x041080400480A003L, 0x00010020083100C0L, 0x004200102008C200L,
+            0x0030801800040080L, 0x004200190A005004L, 0x00340004C1020830L, 0x0A01000192004100L,
+            0x0806248002400284L, 0x4000424010026000L, 0x2000C30011002000L, 0x08A0090010010420L,
+            0x0804008004180080L, 0x0001010028020400L, 0x0048840090411A18L, 0x0084020004008E41L,
+            0x0020218480034002L, 0x0600C00040201000L, 0x8000504100200100L, 0x0042210100099002L,
+            0x0200880080040080L, 0x0000400801041020L, 0x1006081400061005L, 0x0000010200004884L,
+            0x4840084034800080L, 0x0B02400980802000L, 0x0B07022001001040L, 0x4080100101002008L,
+            0x2200C80180800400L, 0x2009000813004400L, 0x9440828104001008L, 0x0800801444800100L,
+            0x0086400880208004L, 0x0520100041A44002L, 0x0440201201820040L, 0x0000120240620008L,
+            0x0008040008008080L, 0x0021000A04010008L, 0x0002010002008080L, 0x1001808044020001L,
+            0x0011004028800100L, 0x1500400291026100L, 0x0010100080200680L, 0x800C086100100500L,
+            0x684008010070CD00L, 0x1241800400020080L, 0x00C00801100A4400L, 0x000100298A024100L,
+            0x0803001040800221L, 0x8210801825004001L, 0x4189009440A00109L, 0x0001002018100005L,
+            0x0601002410280003L, 0x0403000400180601L, 0x1040300A00810804L, 0x2000424401008122L
+    };
+
+    private static final long[] BISHOP_MAGICS = {
+            0x0008420801470208L, 0x4050104101042C20L, 0x0090840040489000L, 0x1014040180080000L,
+            0x840C0C2000038000L, 0x0108451010800800L, 0x108C0A0202A00000L, 0x0800240402080308L,
+            0x08244202820C0900L, 0x0840A0091400A081L, 0x1000100122002000L, 0x0520910400820402L,
+            0x0004840420000010L, 0x0004021110280840L, 0x850004C410088800L, 0x1000002488045024L,
+            0x2088001042300C00L, 0x101000020C08208CL, 0x0010062043004010L, 0x0080C02404008010L,
+            0x1203808400A02601L, 0x020080880804020AL, 0x0012000411041228L, 0x2102004043141D08L,
+            0x0060600810051304L, 0x2004044060590410L, 0x0804020004080110L, 0x1010040100401060L,
+            0x2400940008802001L, 0x010400222100A001L, 0x0884050001885100L, 0x0004042045110100L,
+            0x008610900040C200L, 0x8804020243091050L, 0x2012208800900120L, 0x0419C04800488200L,
+            0x5040150010B100C0L, 0x1081060A00088800L, 0x0404040400024100L, 0x0062042040090040L,
+            0x0988080404441042L, 0x0089080230040291L, 0x0082182808061404L, 0x1400015414022800L,
+            0x810006021A000400L, 0x2120822242007340L, 0x0510040500440410L, 0xC208480108402C24L,
+            0x0421040105400010L, 0x101024052808022AL, 0x00C00100A0900005L, 0x0000000020880000L,
+            0x2414000930640182L, 0x210442B012208080L, 0x0090CA100C028005L, 0x9220184211C04108L,
+            0x8000222404200840L, 0x0002088400821090L, 0x500821B080480800L, 0x3290010000420E02L,
+            0x2610020010060880L, 0x8092000E04080E00L, 0x0800400841310A00L, 0x2840826802008050L
+    };
+
+    private static final long[] ROOK_MASKS = new long[64];
+    private static final int[] ROOK_SHIFTS = new int[64];
+    private static final int[] ROOK_OFFSETS = new int[64];
+    private static final long[] ROOK_TABLE;
+
+    private static final long[] BISHOP_MASKS = new long[64];
+    private static final int[] BISHOP_SHIFTS = new int[64];
+    private static final int[] BISHOP_OFFSETS = new int[64];
+    private static final long[] BISHOP_TABLE;
+
+    static {
+        ROOK_TABLE = build(ROOK_DIRECTIONS, ROOK_MAGICS, ROOK_MASKS, ROOK_SHIFTS, ROOK_OFFSETS);
+        BISHOP_TABLE = build(BISHOP_DIRECTIONS, BISHOP_MAGICS, BISHOP_MASKS, BISHOP_SHIFTS, BISHOP_OFFSETS);
+    }
+
+    private Magics() {
+    }
+
+    static long rookAttacks(int square, long occupied) {
+        return ROOK_TABLE[ROOK_OFFSETS[square]
+                + (int) (((occupied & ROOK_MASKS[square]) * ROOK_MAGICS[square]) >>> ROOK_SHIFTS[square])];
+    }
+
+    static long bishopAttacks(int square, long occupied) {
+        return BISHOP_TABLE[BISHOP_OFFSETS[square]
+                + (int) (((occupied & BISHOP_MASKS[square]) * BISHOP_MAGICS[square]) >>> BISHOP_SHIFTS[square])];
+    }
+
+    private static long[] build(int[][] directions, long[] magics, long[] masks, int[] shifts, int[] offsets) {
+        int size = 0;
+        for (int square = 0; square < 64; square++) {
+            masks[square] = relevantBlockers(square, directions);
+            int bits = Long.bitCount(masks[square]);
+            shifts[square] = 64 - bits;
+            offsets[square] = size;
+            size += 1 << bits;
+        }
+
+        long[] table = new long[size];
+        for (int square = 0; square < 64; square++) {
+            long mask = masks[square];
+            // enumerate every subset of the mask (carry-rippler)
+            long subset = 0;
+            do {
+                long attacks = slowAttacks(square, subset, directions);
+                int slot = offsets[square] + (int) ((subset * magics[square]) >>> shifts[square]);
+                if (table[slot] != 0 && table[slot] != attacks) {
+                    throw new IllegalStateException("bad magic for square " + square);
+                }
+                table[slot] = attacks;
+                subset = (subset - mask) & mask;
+            } while (subset != 0);
+        }
+        return table;
+    }
+
+    private static long relevantBlockers(int square, int[][] directions) {
+        long mask = 0;
+        for (int[] direction : directions) {
+            int row = (square >>> 3) + direction[0];
+            int col = (square & 7) + direction[1];
+            // a piece on the last square of a ray never blocks anything behind it
+            while (inside(row + direction[0], col + direction[1])) {
+                mask |= 1L << (row * 8 + col);
+                row += direction[0];
+                col += direction[1];
+            }
+        }
+        return mask;
+    }
+
+    private static long slowAttacks(int square, long occupied, int[][] directions) {
+        long attacks = 0;
+        for (int[] direction : directions) {
+            int row = (square >>> 3) + direction[0];
+            int col = (square & 7) + direction[1];
+            while (inside(row, col)) {
+                long bit = 1L << (row * 8 + col);
+                attacks |= bit;
+                if ((occupied & bit) != 0) {
+                    break;
+                }
+                row += direction[0];
+                col += direction[1];
+            }
+        }
+        return attacks;
+    }
+
+    private static boolean inside(int row, int col) {
+        return ((row | col) & ~7) == 0;
+    }
+
+    /**
+     * Searches for a fresh set of magics and prints them in the form used above.
+     */
+    public static void main(String[] args) {
+        long seed = args.length > 0 ? Long.parseLong(args[0]) : 0x6A09E667F3BCC909L;
+        SplittableRandom random = new SplittableRandom(seed);
+        for (int[][] directions : new int[][][]{ROOK_DIRECTIONS, BISHOP_DIRECTIONS}) {
+            System.out.println(directions == ROOK_DIRECTIONS ? "rook magics:" : "bishop magics:");
+            for (int square = 0; square < 64; square++) {
+                System.out.printf("0x%016XL,%s", findMagic(square, directions, random), square % 4 == 3 ? "\n" : " ");
+            }
+        }
+    }
+
+    // tries sparse random candidates until one maps every blocker set to a slot without a conflicting attack set
+    private static long findMagic(int square, int[][] directions, SplittableRandom random) {
+        long mask = relevantBlockers(square, directions);
+        int bits = Long.bitCount(mask);
+        int count = 1 << bits;
+        long[] blockers = new long[count];
+        long[] attacks = new long[count];
+        long subset = 0;
+        for (int i = 0; i < count; i++) {
+            blockers[i] = subset;
+            attacks[i] = slowAttacks(square, subset, directions);
+            subset = (subset - mask) & mask;
+        }
+
+        long[] used = new long[count];
+        int[] filledBy = new int[count];
+        for (int attempt = 1; ; attempt++) {
+            long magic = random.nextLong() & random.nextLong() & random.nextLong();
+            if (Long.bitCount((mask * magic) >>> 56) < 6) {
+                continue;
+            }
+            boolean collision = false;
+            for (int i = 0; i < count && !collision; i++) {
+                int slot = (int) ((blockers[i] * magic) >>> (64 - bits));
+                if (filledBy[slot] != attempt) {
+                    filledBy[slot] = attempt;
+                    used[slot] = attacks[i];
+                } else if (used[slot] != attacks[i]) {
+                    collision = true;
+                }
+            }
+            if (!collision) {
+                return magic;
+            }
+        }
+    }
+}
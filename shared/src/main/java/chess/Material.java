@@ -0,0 +1,271 @@
+package chess;
+
+/**
+ * A tablebase material configuration such as {@code KQK} or {@code KRKN}: white's
+ * pieces from its king up to the second {@code K}, then black's.
+ * <p>
+ * Each piece has a slot (white king, black king, then the others in name order),
+ * and a position is indexed by the side to move and the square in each slot:
+ * {@code side * 64^n + square[0] * 64^(n-1) + ... + square[n-1]}. No symmetry is
+ * folded away, so pawns need no special casing and duplicate pieces simply appear in
+ * every order.
+ */
+final class Material {
+
+    // kings plus two more pieces keeps a table at 2 * 64^4 bytes, inside one mapping
+    static final int MAX_PIECES = 4;
+    // non-king pieces: five types in each color
+    private static final int EXTRA_KINDS = 10;
+    // number of signatures: no piece besides the kings, one piece, or an unordered pair
+    static final int SIGNATURES = 1 + EXTRA_KINDS + EXTRA_KINDS * (EXTRA_KINDS + 1) / 2;
+
+    private static final String ORDER = "KQRBNP";
+    private static final ChessPiece.PieceType[] TYPES = {ChessPiece.PieceType.KING, ChessPiece.PieceType.QUEEN,
+            ChessPiece.PieceType.ROOK, ChessPiece.PieceType.BISHOP, ChessPiece.PieceType.KNIGHT,
+            ChessPiece.PieceType.PAWN};
+    private static final ChessPiece.PieceType[] BY_ORDINAL = ChessPiece.PieceType.values();
+    private static final int PIECE_TYPES = BY_ORDINAL.length;
+    // position in ORDER of each piece type, by ordinal
+    private static final int[] ORDER_OF = new int[PIECE_TYPES];
+
+    static {
+        for (int i = 0; i < TYPES.length; i++) {
+            ORDER_OF[TYPES[i].ordinal()] = i;
+        }
+    }
+
+    private final String name;
+    // board index of the piece in each slot
+    private final int[] pieces;
+    // index weight of each slot's square
+    private final int[] weights;
+    private final int sideOffset;
+
+    private Material(int[] pieces) {
+        int[] sorted = pieces.clone();
+        for (int i = 1; i < sorted.length; i++) {
+            int piece = sorted[i];
+            int j = i;
+            for (; j > 0 && rank(sorted[j - 1]) > rank(piece); j--) {
+                sorted[j] = sorted[j - 1];
+            }
+            sorted[j] = piece;
+        }
+        this.pieces = sorted;
+
+        StringBuilder white = new StringBuilder();
+        StringBuilder black = new StringBuilder();
+        for (int piece : sorted) {
+            (color(piece) == ChessGame.TeamColor.WHITE ? white : black).append(ORDER.charAt(order(piece)));
+        }
+        this.name = white.append(black).toString();
+
+        this.weights = new int[sorted.length];
+        int weight = 1;
+        for (int i = sorted.length - 1; i >= 0; i--) {
+            weights[i] = weight;
+            weight *= 64;
+        }
+        this.sideOffset = weight;
+    }
+
+    /**
+     * @throws IllegalArgumentException if the name is not one king per side and at
+     *                                  most {@value #MAX_PIECES} pieces in all
+     */
+    static Material parse(String name) {
+        if (name.length() < 2 || name.length() > MAX_PIECES || name.charAt(0) != 'K'
+                || name.indexOf('K', 1) < 0 || name.indexOf('K', name.indexOf('K', 1) + 1) >= 0) {
+            throw new IllegalArgumentException("not a tablebase material: " + name);
+        }
+        int blackKing = name.indexOf('K', 1);
+        int[] pieces = new int[name.length()];
+        for (int i = 0; i < name.length(); i++) {
+            int order = ORDER.indexOf(name.charAt(i));
+            if (order < 0) {
+                throw new IllegalArgumentException("not a tablebase material: " + name);
+            }
+            ChessGame.TeamColor color = i < blackKing ? ChessGame.TeamColor.WHITE : ChessGame.TeamColor.BLACK;
+            pieces[i] = ChessBoard.index(color, TYPES[order]);
+        }
+        return new Material(pieces);
+    }
+
+    /**
+     * @return the material on the board, or null if it has too many pieces or not one
+     * king per side
+     */
+    static Material of(ChessBoard board) {
+        if (Long.bitCount(board.occupied()) > MAX_PIECES
+                || Long.bitCount(board.pieces(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.KING)) != 1
+                || Long.bitCount(board.pieces(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.KING)) != 1) {
+            return null;
+        }
+        int[] pieces = new int[Long.bitCount(board.occupied())];
+        int slot = 0;
+        for (int index = 0; index < board.pieceBoards.length; index++) {
+            for (int count = Long.bitCount(board.pieceBoards[index]); count > 0; count--) {
+                pieces[slot++] = index;
+            }
+        }
+        return new Material(pieces);
+    }
+
+    /**
+     * Identifies the board's material by counting bits alone, so probes can find a
+     * cached material without building one. Only defined while {@link #MAX_PIECES} is 4.
+     *
+     * @return a number below {@link #SIGNATURES}, the same for boards with the same
+     * material, or -1 where {@link #of} gives null
+     */
+    static int signature(ChessBoard board) {
+        if (Long.bitCount(board.occupied()) > MAX_PIECES
+                || Long.bitCount(board.pieces(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.KING)) != 1
+                || Long.bitCount(board.pieces(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.KING)) != 1) {
+            return -1;
+        }
+        int first = -1;
+        int second = -1;
+        for (int index = 0; index < board.pieceBoards.length; index++) {
+            int type = index % PIECE_TYPES;
+            if (type == ChessPiece.PieceType.KING.ordinal()) {
+                continue;
+            }
+            // kinds rise with the index, so the pair comes out ordered
+            int kind = index / PIECE_TYPES * (PIECE_TYPES - 1) + type - 1;
+            for (int count = Long.bitCount(board.pieceBoards[index]); count > 0; count--) {
+                if (first < 0) {
+                    first = kind;
+                } else {
+                    second = kind;
+                }
+            }
+        }
+        if (first < 0) {
+            return 0;
+        }
+        return second < 0 ? 1 + first : 1 + EXTRA_KINDS + second * (second + 1) / 2 + first;
+    }
+
+    String name() {
+        return name;
+    }
+
+    int pieceCount() {
+        return pieces.length;
+    }
+
+    int piece(int slot) {
+        return pieces[slot];
+    }
+
+    int weight(int slot) {
+        return weights[slot];
+    }
+
+    /**
+     * @return the number of indices, valid or not
+     */
+    int size() {
+        return 2 * sideOffset;
+    }
+
+    /**
+     * @return the material left after the piece in the slot is captured
+     */
+    Material without(int slot) {
+        int[] rest = new int[pieces.length - 1];
+        System.arraycopy(pieces, 0, rest, 0, slot);
+        System.arraycopy(pieces, slot + 1, rest, slot, rest.length - slot);
+        return new Material(rest);
+    }
+
+    /**
+     * @return the material after the pawn in the slot promotes
+     */
+    Material promoted(int slot, ChessPiece.PieceType type) {
+        int[] next = pieces.clone();
+        next[slot] = ChessBoard.index(color(pieces[slot]), type);
+        return new Material(next);
+    }
+
+    ChessGame.TeamColor side(int index) {
+        return index < sideOffset ? ChessGame.TeamColor.WHITE : ChessGame.TeamColor.BLACK;
+    }
+
+    /**
+     * Decodes the square of each slot into the array
+     */
+    void squares(int index, int[] squares) {
+        int rest = index % sideOffset;
+        for (int slot = pieces.length - 1; slot >= 0; slot--) {
+            squares[slot] = rest & 63;
+            rest >>>= 6;
+        }
+    }
+
+    int index(ChessGame.TeamColor side, int[] squares) {
+        int index = side == ChessGame.TeamColor.WHITE ? 0 : sideOffset;
+        for (int slot = 0; slot < pieces.length; slot++) {
+            index += squares[slot] * weights[slot];
+        }
+        return index;
+    }
+
+    /**
+     * @return the index of the board's position, which must have this material
+     */
+    int index(ChessBoard board, ChessGame.TeamColor side) {
+        int index = side == ChessGame.TeamColor.WHITE ? 0 : sideOffset;
+        long bits = 0;
+        for (int slot = 0; slot < pieces.length; slot++) {
+            // copies of one piece sit in neighbouring slots and take its squares in turn
+            bits = slot > 0 && pieces[slot] == pieces[slot - 1] ? bits & (bits - 1) : board.pieceBoards[pieces[slot]];
+            index += Long.numberOfTrailingZeros(bits) * weights[slot];
+        }
+        return index;
+    }
+
+    /**
+     * @return the index with the other side to move
+     */
+    int flipSide(int index) {
+        return index < sideOffset ? index + sideOffset : index - sideOffset;
+    }
+
+    static ChessGame.TeamColor color(int piece) {
+        return piece < PIECE_TYPES ? ChessGame.TeamColor.WHITE : ChessGame.TeamColor.BLACK;
+    }
+
+    static ChessPiece.PieceType type(int piece) {
+        return BY_ORDINAL[piece % PIECE_TYPES];
+    }
+
+    private static int order(int piece) {
+        return ORDER_OF[piece % PIECE_TYPES];
+    }
+
+    // kings lead, then white's pieces, then black's, each in name order
+    private static int rank(int piece) {
+        int order = order(piece);
+        if (order == 0) {
+            return color(piece).ordinal();
+        }
+        return 2 + color(piece).ordinal() * ORDER.length() + order;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof Material other && name.equals(other.name);
+    }
+
+    @Override
+    public int hashCode() {
+        return name.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return name;
+    }
+}
@@ -0,0 +1,282 @@
+package chess;
+
+/**
+ * Generates legal moves without trying them on the board.
+ * <p>
+ * Before generating, the side's checkers and pinned pieces are worked out from the
+ * king square. A piece other than the king may only move onto a checker or a square
+ * between it and the king, and a pinned piece may only move along its pin line. King
+ * moves are checked against enemy attacks with the king lifted off the board, so it
+ * cannot step back along a checking ray. The rules have no castling or en passant, so
+ * nothing else can expose the king. Boards without exactly one king of the side fall
+ * back to trying each move with make/unmake.
+ * <p>
+ * Moves are written as packed ints ({@link PackedMove}) into a caller-owned
+ * {@link MoveList}, so generation itself allocates nothing.
+ */
+final class MoveGenerator {
+
+    private static final int QUEEN = promotion(ChessPiece.PieceType.QUEEN);
+    private static final int ROOK = promotion(ChessPiece.PieceType.ROOK);
+    private static final int BISHOP = promotion(ChessPiece.PieceType.BISHOP);
+    private static final int KNIGHT = promotion(ChessPiece.PieceType.KNIGHT);
+
+    // list for hasLegalMove's trial-move fallback, reused so it does not allocate, one per thread
+    private static final ThreadLocal<MoveList> FALLBACK = ThreadLocal.withInitial(MoveList::new);
+
+    private static final ChessPiece.PieceType[] SLIDERS_AND_KNIGHT = {ChessPiece.PieceType.KNIGHT,
+            ChessPiece.PieceType.BISHOP, ChessPiece.PieceType.ROOK, ChessPiece.PieceType.QUEEN};
+
+    private MoveGenerator() {
+    }
+
+    /**
+     * Adds the legal moves of the side's pieces that stand on the {@code from} squares
+     */
+    static void legalMoves(ChessBoard board, ChessGame.TeamColor side, long from, MoveList moves) {
+        generate(board, side, from, -1L, moves);
+    }
+
+    /**
+     * Adds the side's legal captures, for quiescence search
+     */
+    static void legalCaptures(ChessBoard board, ChessGame.TeamColor side, MoveList moves) {
+        generate(board, side, board.occupancy(side), board.occupancy(ChessGame.opponent(side)), moves);
+    }
+
+    // legal moves from the from squares that end on one of the target squares
+    private static void generate(ChessBoard board, ChessGame.TeamColor side, long from, long targetSquares,
+                                 MoveList moves) {
+        long kings = board.pieces(side, ChessPiece.PieceType.KING);
+        if (Long.bitCount(kings) != 1) {
+            trialMoves(board, side, from, targetSquares, moves);
+            return;
+        }
+        ChessGame.TeamColor enemy = ChessGame.opponent(side);
+        int king = Long.numberOfTrailingZeros(kings);
+        long us = board.occupancy(side);
+        long them = board.occupancy(enemy);
+        long occupied = us | them;
+
+        if ((from & kings) != 0) {
+            for (long targets = Bitboards.kingAttacks(king) & ~us & targetSquares; targets != 0;
+                 targets &= targets - 1) {
+                int to = Long.numberOfTrailingZeros(targets);
+                if (!board.isAttacked(to, enemy, occupied ^ kings)) {
+                    moves.add(move(king, to, them));
+                }
+            }
+        }
+
+        long checkers = board.attackers(king, enemy, occupied);
+        if (Long.bitCount(checkers) > 1) {
+            return;
+        }
+        long allowed = checkers == 0 ? ~us : checkers | Bitboards.between(king, Long.numberOfTrailingZeros(checkers));
+        allowed &= targetSquares;
+        long pinned = pinned(board, king, enemy, us, them, occupied);
+
+        from &= us & ~kings;
+        addPieceMoves(board.pieces(side, ChessPiece.PieceType.KNIGHT) & from & ~pinned, king, pinned, allowed,
+                ChessPiece.PieceType.KNIGHT, them, occupied, moves);
+        addPieceMoves(board.pieces(side, ChessPiece.PieceType.BISHOP) & from, king, pinned, allowed,
+                ChessPiece.PieceType.BISHOP, them, occupied, moves);
+        addPieceMoves(board.pieces(side, ChessPiece.PieceType.ROOK) & from, king, pinned, allowed,
+                ChessPiece.PieceType.ROOK, them, occupied, moves);
+        addPieceMoves(board.pieces(side, ChessPiece.PieceType.QUEEN) & from, king, pinned, allowed,
+                ChessPiece.PieceType.QUEEN, them, occupied, moves);
+        addPawnMoves(board.pieces(side, ChessPiece.PieceType.PAWN) & from, side, king, pinned, allowed,
+                them, occupied, moves);
+    }
+
+    /**
+     * Reports whether the side has any legal move, stopping at the first one found.
+     * <p>
+     * King moves are tried first, then, when in check, capturing the checker, since
+     * those settle most positions that are not mate. Other pieces only need a
+     * non-empty set of legal target squares, so no moves are listed at all.
+     */
+    static boolean hasLegalMove(ChessBoard board, ChessGame.TeamColor side) {
+        long kings = board.pieces(side, ChessPiece.PieceType.KING);
+        if (Long.bitCount(kings) != 1) {
+            MoveList moves = FALLBACK.get();
+            moves.clear();
+            trialMoves(board, side, board.occupancy(side), -1L, moves);
+            return !moves.isEmpty();
+        }
+        ChessGame.TeamColor enemy = ChessGame.opponent(side);
+        int king = Long.numberOfTrailingZeros(kings);
+        long us = board.occupancy(side);
+        long them = board.occupancy(enemy);
+        long occupied = us | them;
+
+        for (long targets = Bitboards.kingAttacks(king) & ~us; targets != 0; targets &= targets - 1) {
+            if (!board.isAttacked(Long.numberOfTrailingZeros(targets), enemy, occupied ^ kings)) {
+                return true;
+            }
+        }
+
+        long checkers = board.attackers(king, enemy, occupied);
+        if (Long.bitCount(checkers) > 1) {
+            return false;
+        }
+        long pinned = pinned(board, king, enemy, us, them, occupied);
+        long allowed = ~us;
+        if (checkers != 0) {
+            // a pinned piece can never answer a check, whatever it captures or blocks
+            int checker = Long.numberOfTrailingZeros(checkers);
+            if ((board.attackers(checker, side, occupied) & ~kings & ~pinned) != 0) {
+                return true;
+            }
+            allowed = Bitboards.between(king, checker);
+        }
+
+        for (ChessPiece.PieceType type : SLIDERS_AND_KNIGHT) {
+            for (long pieces = board.pieces(side, type); pieces != 0; pieces &= pieces - 1) {
+                int from = Long.numberOfTrailingZeros(pieces);
+                long targets = pieceTargets(type, from, occupied) & allowed;
+                if ((pinned & (1L << from)) != 0) {
+                    targets &= Bitboards.line(king, from);
+                }
+                if (targets != 0) {
+                    return true;
+                }
+            }
+        }
+        for (long pawns = board.pieces(side, ChessPiece.PieceType.PAWN); pawns != 0; pawns &= pawns - 1) {
+            int from = Long.numberOfTrailingZeros(pawns);
+            long targets = pawnTargets(from, side, them, occupied) & allowed;
+            if ((pinned & (1L << from)) != 0) {
+                targets &= Bitboards.line(king, from);
+            }
+            if (targets != 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // pieces of ours that are the only thing between our king and an enemy slider on the same line
+    private static long pinned(ChessBoard board, int king, ChessGame.TeamColor enemy, long us, long them,
+                               long occupied) {
+        long queens = board.pieces(enemy, ChessPiece.PieceType.QUEEN);
+        long pinners = (Bitboards.rookAttacks(king, them) & (board.pieces(enemy, ChessPiece.PieceType.ROOK) | queens))
+                | (Bitboards.bishopAttacks(king, them) & (board.pieces(enemy, ChessPiece.PieceType.BISHOP) | queens));
+        long pinned = 0;
+        for (; pinners != 0; pinners &= pinners - 1) {
+            long blockers = Bitboards.between(king, Long.numberOfTrailingZeros(pinners)) & occupied;
+            if (Long.bitCount(blockers) == 1 && (blockers & us) != 0) {
+                pinned |= blockers;
+            }
+        }
+        return pinned;
+    }
+
+    private static void addPieceMoves(long pieces, int king, long pinned, long allowed, ChessPiece.PieceType type,
+                                      long them, long occupied, MoveList moves) {
+        for (; pieces != 0; pieces &= pieces - 1) {
+            int from = Long.numberOfTrailingZeros(pieces);
+            long targets = pieceTargets(type, from, occupied) & allowed;
+            if ((pinned & (1L << from)) != 0) {
+                targets &= Bitboards.line(king, from);
+            }
+            for (; targets != 0; targets &= targets - 1) {
+                moves.add(move(from, Long.numberOfTrailingZeros(targets), them));
+            }
+        }
+    }
+
+    private static void addPawnMoves(long pawns, ChessGame.TeamColor side, int king, long pinned, long allowed,
+                                     long them, long occupied, MoveList moves) {
+        long lastRow = side == ChessGame.TeamColor.WHITE ? Bitboards.RANK_8 : Bitboards.RANK_1;
+        for (; pawns != 0; pawns &= pawns - 1) {
+            int from = Long.numberOfTrailingZeros(pawns);
+            long bit = 1L << from;
+            long targets = pawnTargets(from, side, them, occupied) & allowed;
+            if ((pinned & bit) != 0) {
+                targets &= Bitboards.line(king, from);
+            }
+            for (; targets != 0; targets &= targets - 1) {
+                int to = Long.numberOfTrailingZeros(targets);
+                int move = move(from, to, them);
+                if (((1L << to) & lastRow) != 0) {
+                    moves.add(move | QUEEN);
+                    moves.add(move | ROOK);
+                    moves.add(move | BISHOP);
+                    moves.add(move | KNIGHT);
+                } else {
+                    moves.add(move);
+                }
+            }
+        }
+    }
+
+    private static long pieceTargets(ChessPiece.PieceType type, int from, long occupied) {
+        return switch (type) {
+            case KNIGHT -> Bitboards.knightAttacks(from);
+            case BISHOP -> Bitboards.bishopAttacks(from, occupied);
+            case ROOK -> Bitboards.rookAttacks(from, occupied);
+            default -> Bitboards.queenAttacks(from, occupied);
+        };
+    }
+
+    // pushes onto empty squares and captures of enemy pieces
+    private static long pawnTargets(int from, ChessGame.TeamColor side, long them, long occupied) {
+        long bit = 1L << from;
+        long empty = ~occupied;
+        long captures = Bitboards.pawnAttacks(from, side) & them;
+        if (side == ChessGame.TeamColor.WHITE) {
+            long push = (bit << 8) & empty;
+            return captures | push | ((push & Bitboards.RANK_3) << 8) & empty;
+        }
+        long push = (bit >>> 8) & empty;
+        return captures | push | ((push & Bitboards.RANK_6) >>> 8) & empty;
+    }
+
+    // promotion bits of a packed move
+    private static int promotion(ChessPiece.PieceType type) {
+        return PackedMove.of(0, 0, type);
+    }
+
+    private static int move(int from, int to, long them) {
+        int move = PackedMove.of(from, to);
+        return (them & (1L << to)) != 0 ? move | PackedMove.CAPTURE : move;
+    }
+
+    // pseudo-legal moves kept only if they leave the side's (lowest) king unattacked; also
+    // the reference the tests check the pin and checker generation against
+    static void trialMoves(ChessBoard board, ChessGame.TeamColor side, long from, long targetSquares,
+                                   MoveList moves) {
+        ChessGame.TeamColor enemy = ChessGame.opponent(side);
+        long us = board.occupancy(side);
+        long them = board.occupancy(enemy);
+        long occupied = us | them;
+        int first = moves.size();
+        from &= us;
+        for (long kings = board.pieces(side, ChessPiece.PieceType.KING) & from; kings != 0; kings &= kings - 1) {
+            int king = Long.numberOfTrailingZeros(kings);
+            for (long targets = Bitboards.kingAttacks(king) & ~us & targetSquares; targets != 0;
+                 targets &= targets - 1) {
+                moves.add(move(king, Long.numberOfTrailingZeros(targets), them));
+            }
+        }
+        long allowed = ~us & targetSquares;
+        for (ChessPiece.PieceType type : SLIDERS_AND_KNIGHT) {
+            addPieceMoves(board.pieces(side, type) & from, 0, 0, allowed, type, them, occupied, moves);
+        }
+        addPawnMoves(board.pieces(side, ChessPiece.PieceType.PAWN) & from, side, 0, 0, allowed, them, occupied,
+                moves);
+
+        int kept = first;
+        for (int i = first; i < moves.size(); i++) {
+            int move = moves.get(i);
+            int undo = board.makeMove(move);
+            int king = board.kingSquare(side);
+            if (king < 0 || !board.isAttacked(king, enemy)) {
+                moves.set(kept++, move);
+            }
+            board.unmakeMove(move, undo);
+        }
+        moves.truncate(kept);
+    }
+}
@@ -0,0 +1,71 @@
+package chess;
+
+import java.util.Arrays;
+
+/**
+ * A growable list of packed moves backed by an int array. Lists are meant to be
+ * cleared and reused, so steady-state move generation allocates nothing.
+ */
+final class MoveList {
+
+    // no legal position has more than 218 moves
+    private static final int DEFAULT_CAPACITY = 256;
+
+    private int[] moves;
+    private int size;
+
+    MoveList() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    MoveList(int capacity) {
+        moves = new int[capacity];
+    }
+
+    void add(int move) {
+        if (size == moves.length) {
+            moves = Arrays.copyOf(moves, size * 2);
+        }
+        moves[size++] = move;
+    }
+
+    int get(int index) {
+        return moves[index];
+    }
+
+    void set(int index, int move) {
+        moves[index] = move;
+    }
+
+    int size() {
+        return size;
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    void clear() {
+        size = 0;
+    }
+
+    /**
+     * Drops every move from {@code newSize} on
+     */
+    void truncate(int newSize) {
+        size = newSize;
+    }
+
+    /**
+     * @return true if the list holds the move, ignoring flags
+     */
+    boolean containsIgnoringFlags(int move) {
+        int target = PackedMove.withoutFlags(move);
+        for (int i = 0; i < size; i++) {
+            if (PackedMove.withoutFlags(moves[i]) == target) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,97 @@
+package chess;
+
+/**
+ * Orders moves so alpha-beta sees the likely best ones first: the hash move, then
+ * captures by most valuable victim and least valuable attacker, then the killer moves
+ * of the ply, then quiet moves by how often they caused cutoffs (butterfly history).
+ * <p>
+ * Belongs to one search thread. Scores go into a preallocated int array per ply and
+ * moves are sorted in place alongside them, so ordering allocates nothing.
+ */
+final class MoveOrdering {
+
+    private static final int HASH = 1 << 30;
+    private static final int CAPTURE = 1 << 28;
+    private static final int PROMOTION = 1 << 27;
+    private static final int KILLER = 1 << 26;
+    // history scores stay below the killers; reaching this halves the side's table
+    private static final int HISTORY_LIMIT = 1 << 24;
+
+    private static final int TYPES = ChessPiece.PieceType.values().length;
+    private static final int QUEEN = ChessPiece.PieceType.QUEEN.ordinal() + 1;
+
+    private final int[][] scores = new int[Search.MAX_PLY][256];
+    private final int[][] killers = new int[Search.MAX_PLY][2];
+    // indexed by side, then from * 64 + to
+    private final int[][] history = new int[2][64 * 64];
+
+    /**
+     * Sorts the moves of a ply, best first
+     */
+    void order(MoveList moves, int ply, int hashMove, ChessBoard board, ChessGame.TeamColor side) {
+        int size = moves.size();
+        if (scores[ply].length < size) {
+            scores[ply] = new int[size];
+        }
+        int[] score = scores[ply];
+        int[] sideHistory = history[side.ordinal()];
+        int[] killer = killers[ply];
+        for (int i = 0; i < size; i++) {
+            int move = moves.get(i);
+            int value;
+            if (move == hashMove) {
+                value = HASH;
+            } else if (PackedMove.isCapture(move)) {
+                int victim = board.pieceIndex(PackedMove.to(move)) % TYPES;
+                int attacker = board.pieceIndex(PackedMove.from(move)) % TYPES;
+                value = CAPTURE + Evaluation.VALUES[victim] * 16 - Evaluation.VALUES[attacker] / 16;
+            } else if (move == killer[0]) {
+                value = KILLER + 1;
+            } else if (move == killer[1]) {
+                value = KILLER;
+            } else {
+                value = sideHistory[PackedMove.from(move) * 64 + PackedMove.to(move)];
+            }
+            if (PackedMove.promotionCode(move) == QUEEN) {
+                value += PROMOTION;
+            }
+            score[i] = value;
+        }
+
+        // insertion sort: lists are short and often nearly ordered already
+        for (int i = 1; i < size; i++) {
+            int value = score[i];
+            int move = moves.get(i);
+            int j = i - 1;
+            while (j >= 0 && score[j] < value) {
+                score[j + 1] = score[j];
+                moves.set(j + 1, moves.get(j));
+                j--;
+            }
+            score[j + 1] = value;
+            moves.set(j + 1, move);
+        }
+    }
+
+    /**
+     * Records a quiet move that caused a beta cutoff
+     */
+    void cutoff(int move, int ply, int depth, ChessGame.TeamColor side) {
+        if (PackedMove.isCapture(move)) {
+            return;
+        }
+        int[] killer = killers[ply];
+        if (killer[0] != move) {
+            killer[1] = killer[0];
+            killer[0] = move;
+        }
+        int[] sideHistory = history[side.ordinal()];
+        int index = PackedMove.from(move) * 64 + PackedMove.to(move);
+        sideHistory[index] += depth * depth;
+        if (sideHistory[index] >= HISTORY_LIMIT) {
+            for (int i = 0; i < sideHistory.length; i++) {
+                sideHistory[i] >>= 1;
+            }
+        }
+    }
+}
@@ -0,0 +1,188 @@
+package chess;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.random.RandomGenerator;
+
+/**
+ * Read-only opening book, memory-mapped from a file of 16-byte entries in the
+ * Polyglot layout: position key (8 bytes), move (2), weight (2) and a learn field (4),
+ * big-endian and sorted by unsigned key. Lookups binary search the mapping directly,
+ * so opening a book costs nothing up front, the file never lands on the heap, and
+ * every JVM on a host shares one copy through the page cache.
+ * <p>
+ * Keys are {@link ChessGame#zobristKey()}, not the Polyglot random table, so books
+ * must be built with {@link #write}. Moves use Polyglot's encoding: bits 0-5 end
+ * square and 6-11 start square (row * 8 + column, from 0), bits 12-14 promotion piece
+ * (1 knight, 2 bishop, 3 rook, 4 queen). A book is safe to share between threads.
+ */
+public final class OpeningBook {
+
+    private static final int ENTRY_BYTES = 16;
+    private static final ChessPiece.PieceType[] PROMOTIONS = {null, ChessPiece.PieceType.KNIGHT,
+            ChessPiece.PieceType.BISHOP, ChessPiece.PieceType.ROOK, ChessPiece.PieceType.QUEEN};
+
+    /**
+     * One book move for a position; a higher weight means the move is played more often
+     */
+    public record Entry(long key, ChessMove move, int weight) {
+    }
+
+    private final MappedByteBuffer entries;
+    private final int size;
+
+    private OpeningBook(MappedByteBuffer entries) {
+        this.entries = entries;
+        this.size = entries.capacity() / ENTRY_BYTES;
+    }
+
+    /**
+     * Maps a book file. The mapping stays valid after this returns, and pages are read
+     * from disk only as lookups touch them.
+     *
+     * @throws IOException if the file cannot be read or is not a whole number of entries
+     */
+    public static OpeningBook open(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long length = channel.size();
+            if (length % ENTRY_BYTES != 0 || length > Integer.MAX_VALUE) {
+                throw new IOException("not an opening book (" + length + " bytes): " + path);
+            }
+            return new OpeningBook(channel.map(FileChannel.MapMode.READ_ONLY, 0, length));
+        }
+    }
+
+    /**
+     * Writes entries as a sorted book file that {@link #open} can read
+     */
+    public static void write(Path path, Collection<Entry> entries) throws IOException {
+        List<Entry> sorted = new ArrayList<>(entries);
+        sorted.sort(Comparator.comparing(Entry::key, Long::compareUnsigned));
+        ByteBuffer buffer = ByteBuffer.allocate(sorted.size() * ENTRY_BYTES);
+        for (Entry entry : sorted) {
+            if (entry.weight() < 0 || entry.weight() > 0xFFFF) {
+                throw new IllegalArgumentException("book weight must fit in 16 bits: " + entry.weight());
+            }
+            buffer.putLong(entry.key()).putShort((short) encode(entry.move())).putShort((short) entry.weight())
+                    .putInt(0);
+        }
+        buffer.flip();
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        }
+    }
+
+    /**
+     * @return the number of entries in the book
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return the book moves for the game's position that are legal in it, highest
+     * weight first, or an empty list if the position is not in the book
+     */
+    public List<Entry> entries(ChessGame game) {
+        long key = game.zobristKey();
+        List<Entry> found = new ArrayList<>();
+        for (int i = firstIndex(key); i < size && entries.getLong(i * ENTRY_BYTES) == key; i++) {
+            int at = i * ENTRY_BYTES;
+            ChessMove move = decode(Short.toUnsignedInt(entries.getShort(at + 8)));
+            if (isLegal(game, move)) {
+                found.add(new Entry(key, move, Short.toUnsignedInt(entries.getShort(at + 10))));
+            }
+        }
+        found.sort(Comparator.comparingInt(Entry::weight).reversed());
+        return found;
+    }
+
+    /**
+     * @return the highest weighted book move, or null if the position is not in the book
+     */
+    public ChessMove bestMove(ChessGame game) {
+        List<Entry> found = entries(game);
+        return found.isEmpty() ? null : found.get(0).move();
+    }
+
+    /**
+     * Picks a book move at random in proportion to the weights, so a bot does not
+     * always play the same opening
+     *
+     * @return the chosen move, or null if the position is not in the book
+     */
+    public ChessMove pickMove(ChessGame game, RandomGenerator random) {
+        List<Entry> found = entries(game);
+        long total = 0;
+        for (Entry entry : found) {
+            total += entry.weight();
+        }
+        if (total == 0) {
+            return found.isEmpty() ? null : found.get(0).move();
+        }
+        long pick = random.nextLong(total);
+        for (Entry entry : found) {
+            pick -= entry.weight();
+            if (pick < 0) {
+                return entry.move();
+            }
+        }
+        throw new IllegalStateException("weights changed while picking");
+    }
+
+    // index of the first entry whose key is not below the given key
+    private int firstIndex(long key) {
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (Long.compareUnsigned(entries.getLong(mid * ENTRY_BYTES), key) < 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private static boolean isLegal(ChessGame game, ChessMove move) {
+        ChessPiece piece = game.getBoard().getPiece(move.getStartPosition());
+        if (piece == null || piece.getTeamColor() != game.getTeamTurn()) {
+            return false;
+        }
+        return game.legalMoves(game.getTeamTurn()).containsIgnoringFlags(PackedMove.of(move));
+    }
+
+    static int encode(ChessMove move) {
+        int promotion = 0;
+        if (move.getPromotionPiece() != null) {
+            promotion = switch (move.getPromotionPiece()) {
+                case KNIGHT -> 1;
+                case BISHOP -> 2;
+                case ROOK -> 3;
+                case QUEEN -> 4;
+                default -> throw new IllegalArgumentException("cannot promote to " + move.getPromotionPiece());
+            };
+        }
+        return Bitboards.square(move.getEndPosition())
+                | Bitboards.square(move.getStartPosition()) << 6
+                | promotion << 12;
+    }
+
+    static ChessMove decode(int move) {
+        int promotion = (move >>> 12) & 7;
+        return new ChessMove(Bitboards.position((move >>> 6) & 63), Bitboards.position(move & 63),
+                promotion < PROMOTIONS.length ? PROMOTIONS[promotion] : null);
+    }
+}
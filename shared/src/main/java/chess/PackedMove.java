@@ -0,0 +1,68 @@
+package chess;
+
+/**
+ * Moves packed into an int, so the engine can generate and store them without
+ * allocating. {@link ChessMove} objects are only built at the public API.
+ * <p>
+ * Layout: bits 0-5 start square, bits 6-11 end square, bits 12-14 promotion piece
+ * ({@code PieceType.ordinal() + 1}, or 0 for none), bit 15 set if the move captures.
+ */
+final class PackedMove {
+
+    static final int NONE = 0;
+    static final int CAPTURE = 1 << 15;
+
+    private static final ChessPiece.PieceType[] PROMOTIONS = ChessPiece.PieceType.values();
+
+    private PackedMove() {
+    }
+
+    static int of(int from, int to) {
+        return from | to << 6;
+    }
+
+    static int of(int from, int to, ChessPiece.PieceType promotion) {
+        return promotion == null ? of(from, to) : from | to << 6 | (promotion.ordinal() + 1) << 12;
+    }
+
+    /**
+     * Packs a public move. The capture flag is not set, so compare with
+     * {@link #withoutFlags} when matching against generated moves
+     */
+    static int of(ChessMove move) {
+        return of(Bitboards.square(move.getStartPosition()), Bitboards.square(move.getEndPosition()),
+                move.getPromotionPiece());
+    }
+
+    static int from(int move) {
+        return move & 63;
+    }
+
+    static int to(int move) {
+        return (move >>> 6) & 63;
+    }
+
+    /**
+     * @return the promotion piece's ordinal plus one, or 0 if the move does not promote
+     */
+    static int promotionCode(int move) {
+        return (move >>> 12) & 7;
+    }
+
+    static ChessPiece.PieceType promotion(int move) {
+        int code = promotionCode(move);
+        return code == 0 ? null : PROMOTIONS[code - 1];
+    }
+
+    static boolean isCapture(int move) {
+        return (move & CAPTURE) != 0;
+    }
+
+    static int withoutFlags(int move) {
+        return move & 0x7FFF;
+    }
+
+    static ChessMove toChessMove(int move) {
+        return new ChessMove(Bitboards.position(from(move)), Bitboards.position(to(move)), promotion(move));
+    }
+}
@@ -0,0 +1,215 @@
+package chess;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Move generator performance test: counts the leaf nodes of the legal move tree to
+ * a fixed depth. Counts that differ from known references point to a move
+ * generation bug, and the timing gives a throughput number for the generator.
+ * <p>
+ * Usage: {@code java chess.Perft [--divide | --parallel] <depth> [fen]} or
+ * {@code java chess.Perft --suite} to check every reference position.
+ */
+public final class Perft {
+
+    /**
+     * Positions with known node counts under these rules (no castling or en passant).
+     * Counts are indexed by depth - 1.
+     */
+    static final List<Reference> REFERENCES = List.of(
+            new Reference("start", Fen.START, 20, 400, 8_902, 197_281),
+            new Reference("kiwipete", "r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w - - 0 1",
+                    46, 1_865, 86_585),
+            new Reference("endgame", "8/2p5/3p4/KP5r/1R3p1k/8/4P1P1/8 w - - 0 1", 14, 191),
+            new Reference("middlegame", "r4rk1/1pp1qppp/p1np1n2/2b1p1B1/2B1P1b1/P1NP1N2/1PP1QPPP/R4RK1 w - - 0 10",
+                    46, 2_079, 89_890)
+    );
+
+    record Reference(String name, String fen, long... counts) {
+    }
+
+    /**
+     * Node count and elapsed time of one perft run
+     */
+    public record Result(long nodes, long nanos) {
+        public long nodesPerSecond() {
+            return nanos == 0 ? 0 : nodes * 1_000_000_000L / nanos;
+        }
+    }
+
+    private Perft() {
+    }
+
+    /**
+     * Counts the positions reachable in exactly {@code depth} moves from the game's
+     * current position. The game is left unchanged.
+     */
+    public static long count(ChessGame game, int depth) {
+        return count(game.getBoard(), game.getTeamTurn(), depth, plies(depth));
+    }
+
+    public static Result run(ChessGame game, int depth) {
+        long start = System.nanoTime();
+        long nodes = count(game, depth);
+        return new Result(nodes, System.nanoTime() - start);
+    }
+
+    /**
+     * Counts like {@link #count(ChessGame, int)}, splitting the tree across the pool.
+     * Every forked subtree works on its own copy of the board, so the game is never
+     * touched from more than one thread.
+     */
+    public static long countParallel(ChessGame game, int depth, ForkJoinPool pool) {
+        return pool.invoke(new CountTask(game.getBoard().deepCopy(), game.getTeamTurn(), depth));
+    }
+
+    public static Result runParallel(ChessGame game, int depth, ForkJoinPool pool) {
+        long start = System.nanoTime();
+        long nodes = countParallel(game, depth, pool);
+        return new Result(nodes, System.nanoTime() - start);
+    }
+
+    /**
+     * Splits the count by root move, which narrows a wrong total down to the move
+     * whose subtree is wrong.
+     */
+    public static Map<ChessMove, Long> divide(ChessGame game, int depth) {
+        Map<ChessMove, Long> counts = new LinkedHashMap<>();
+        ChessGame.TeamColor side = game.getTeamTurn();
+        ChessBoard board = game.getBoard();
+        MoveList[] plies = plies(depth);
+        MoveList moves = new MoveList();
+        MoveGenerator.legalMoves(board, side, board.occupancy(side), moves);
+        for (int i = 0; i < moves.size(); i++) {
+            int move = moves.get(i);
+            int undo = board.makeMove(move);
+            counts.put(PackedMove.toChessMove(move),
+                    depth <= 1 ? 1 : count(board, ChessGame.opponent(side), depth - 1, plies));
+            board.unmakeMove(move, undo);
+        }
+        return counts;
+    }
+
+    // one move list per remaining depth, reused across the whole walk
+    private static MoveList[] plies(int depth) {
+        MoveList[] plies = new MoveList[Math.max(depth, 0) + 1];
+        for (int i = 0; i < plies.length; i++) {
+            plies[i] = new MoveList();
+        }
+        return plies;
+    }
+
+    private static long count(ChessBoard board, ChessGame.TeamColor side, int depth, MoveList[] plies) {
+        if (depth == 0) {
+            return 1;
+        }
+        MoveList moves = plies[depth];
+        moves.clear();
+        MoveGenerator.legalMoves(board, side, board.occupancy(side), moves);
+        if (depth == 1) {
+            return moves.size();
+        }
+        long nodes = 0;
+        for (int i = 0; i < moves.size(); i++) {
+            int move = moves.get(i);
+            int undo = board.makeMove(move);
+            nodes += count(board, ChessGame.opponent(side), depth - 1, plies);
+            board.unmakeMove(move, undo);
+        }
+        return nodes;
+    }
+
+    // forks one subtask per move until the remaining subtrees are small enough to walk in place
+    private static final class CountTask extends RecursiveTask<Long> {
+
+        private static final int SEQUENTIAL_DEPTH = 3;
+
+        private final ChessBoard board;
+        private final ChessGame.TeamColor side;
+        private final int depth;
+
+        CountTask(ChessBoard board, ChessGame.TeamColor side, int depth) {
+            this.board = board;
+            this.side = side;
+            this.depth = depth;
+        }
+
+        @Override
+        protected Long compute() {
+            if (depth <= SEQUENTIAL_DEPTH) {
+                return count(board, side, depth, plies(depth));
+            }
+            MoveList moves = new MoveList();
+            MoveGenerator.legalMoves(board, side, board.occupancy(side), moves);
+            List<CountTask> tasks = new ArrayList<>(moves.size());
+            for (int i = 0; i < moves.size(); i++) {
+                ChessBoard child = board.deepCopy();
+                child.makeMove(moves.get(i));
+                tasks.add(new CountTask(child, ChessGame.opponent(side), depth - 1));
+            }
+            long nodes = 0;
+            for (CountTask task : invokeAll(tasks)) {
+                nodes += task.join();
+            }
+            return nodes;
+        }
+    }
+
+    public static void main(String[] args) {
+        if (args.length == 1 && args[0].equals("--suite")) {
+            System.exit(runSuite() ? 0 : 1);
+        }
+        boolean divide = args.length > 0 && args[0].equals("--divide");
+        boolean parallel = args.length > 0 && args[0].equals("--parallel");
+        int first = divide || parallel ? 1 : 0;
+        if (args.length <= first) {
+            System.err.println("usage: Perft [--divide | --parallel] <depth> [fen] | --suite");
+            System.exit(2);
+        }
+        int depth = Integer.parseInt(args[first]);
+        String fen = args.length > first + 1
+                ? String.join(" ", List.of(args).subList(first + 1, args.length)) : Fen.START;
+        ChessGame game = Fen.parse(fen);
+
+        if (divide) {
+            long total = 0;
+            for (var entry : divide(game, depth).entrySet()) {
+                System.out.println(entry.getKey() + ": " + entry.getValue());
+                total += entry.getValue();
+            }
+            System.out.println("total: " + total);
+        } else {
+            for (int d = 1; d <= depth; d++) {
+                print(d, parallel ? runParallel(game, d, ForkJoinPool.commonPool()) : run(game, d));
+            }
+        }
+    }
+
+    private static boolean runSuite() {
+        boolean passed = true;
+        for (Reference reference : REFERENCES) {
+            ChessGame game = Fen.parse(reference.fen());
+            for (int d = 1; d <= reference.counts().length; d++) {
+                Result result = run(game, d);
+                long expected = reference.counts()[d - 1];
+                System.out.print(reference.name() + " ");
+                print(d, result);
+                if (result.nodes() != expected) {
+                    System.out.println("  MISMATCH: expected " + expected);
+                    passed = false;
+                }
+            }
+        }
+        return passed;
+    }
+
+    private static void print(int depth, Result result) {
+        System.out.printf("depth %d: %d nodes in %.1f ms (%d nodes/s)%n",
+                depth, result.nodes(), result.nanos() / 1e6, result.nodesPerSecond());
+    }
+}
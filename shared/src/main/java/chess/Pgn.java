@@ -0,0 +1,223 @@
+package chess;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Decodes games in Portable Game Notation, replaying the main line's moves in
+ * Standard Algebraic Notation on a {@link ChessGame}.
+ * <p>
+ * Each move is matched against the game's legal moves, the list {@link
+ * ChessGame#validMoves} reports from, and played with {@link ChessGame#makeMove}.
+ * Comments, variations and annotation glyphs are skipped. Castling and en passant are
+ * not part of these rules, so games that use them are rejected like any other
+ * illegal move. Decoding scans the text in place and keeps no state, so any number
+ * of threads can decode games at once.
+ */
+public final class Pgn {
+
+    private static final String RESULTS = " 1-0 0-1 1/2-1/2 * ";
+
+    private Pgn() {
+    }
+
+    /**
+     * @throws IllegalArgumentException if the text is malformed or a move is illegal
+     *                                  or ambiguous
+     */
+    public static PgnGame parse(String text) {
+        int length = text.length();
+        int i = 0;
+        Map<String, String> tags = new LinkedHashMap<>();
+        while ((i = skipSpaces(text, i)) < length && text.charAt(i) == '[') {
+            i = parseTag(text, i, tags);
+        }
+
+        String fen = tags.get("FEN");
+        ChessGame game = fen != null ? ChessGame.fromFen(fen) : new ChessGame();
+        List<ChessMove> moves = new ArrayList<>();
+        String result = tags.getOrDefault("Result", "*");
+        while ((i = skipSpaces(text, i)) < length) {
+            char c = text.charAt(i);
+            if (c == '{') {
+                i = skipPast(text, i, '}');
+            } else if (c == ';') {
+                i = skipPast(text, i, '\n');
+            } else if (c == '(') {
+                i = skipVariation(text, i);
+            } else if (c == '$') {
+                i = skipToken(text, i + 1);
+            } else {
+                // a stray ")" or "}" becomes a one-character token and is rejected as a move
+                int end = Math.max(skipToken(text, i), i + 1);
+                String token = text.substring(i, end);
+                if (RESULTS.contains(" " + token + " ")) {
+                    result = token;
+                } else {
+                    // move numbers such as "12." or "12..." may run straight into the move
+                    int start = i;
+                    while (start < end && (Character.isDigit(text.charAt(start)) || text.charAt(start) == '.')) {
+                        start++;
+                    }
+                    if (start < end) {
+                        ChessMove move = resolve(game, text, start, end);
+                        play(game, move, token);
+                        moves.add(move);
+                    }
+                }
+                i = end;
+            }
+        }
+        return new PgnGame(tags, moves, game, result);
+    }
+
+    /**
+     * @return the legal move of the side to move that the SAN move names
+     * @throws IllegalArgumentException if the move is malformed, illegal or ambiguous
+     */
+    public static ChessMove resolve(ChessGame game, String san) {
+        return resolve(game, san, 0, san.length());
+    }
+
+    private static ChessMove resolve(ChessGame game, String text, int start, int end) {
+        String san = text.substring(start, end);
+        // check, mate and annotation marks say nothing about which move it is
+        while (end > start && "+#!?".indexOf(text.charAt(end - 1)) >= 0) {
+            end--;
+        }
+        if (text.startsWith("O-O", start) || text.startsWith("0-0", start)) {
+            throw new IllegalArgumentException("castling is not part of these rules: " + san);
+        }
+        ChessPiece.PieceType promotion = null;
+        if (end - start > 2 && pieceType(text.charAt(end - 1)) != null) {
+            promotion = pieceType(text.charAt(end - 1));
+            end -= text.charAt(end - 2) == '=' ? 2 : 1;
+        }
+        if (end - start < 2 || !isFile(text.charAt(end - 2)) || !isRank(text.charAt(end - 1))) {
+            throw new IllegalArgumentException("malformed move " + san);
+        }
+        int to = (text.charAt(end - 1) - '1') * 8 + text.charAt(end - 2) - 'a';
+        end -= 2;
+
+        ChessPiece.PieceType type = ChessPiece.PieceType.PAWN;
+        if (start < end && pieceType(text.charAt(start)) != null) {
+            type = pieceType(text.charAt(start++));
+        }
+        long from = -1L;
+        for (int k = start; k < end; k++) {
+            char c = text.charAt(k);
+            if (isFile(c)) {
+                from &= Bitboards.FILE_A << (c - 'a');
+            } else if (isRank(c)) {
+                from &= Bitboards.RANK_1 << 8 * (c - '1');
+            } else if (c != 'x' && c != ':' && c != '-') {
+                throw new IllegalArgumentException("malformed move " + san);
+            }
+        }
+
+        ChessGame.TeamColor side = game.getTeamTurn();
+        MoveList legal = game.legalMoves(side);
+        int found = PackedMove.NONE;
+        for (long pieces = game.getBoard().pieces(side, type) & from; pieces != 0; pieces &= pieces - 1) {
+            int move = PackedMove.of(Long.numberOfTrailingZeros(pieces), to, promotion);
+            if (legal.containsIgnoringFlags(move)) {
+                if (found != PackedMove.NONE) {
+                    throw new IllegalArgumentException("ambiguous move " + san);
+                }
+                found = move;
+            }
+        }
+        if (found == PackedMove.NONE) {
+            throw new IllegalArgumentException("illegal move " + san);
+        }
+        return PackedMove.toChessMove(found);
+    }
+
+    private static void play(ChessGame game, ChessMove move, String token) {
+        try {
+            game.makeMove(move);
+        } catch (InvalidMoveException e) {
+            throw new IllegalArgumentException("illegal move " + token, e);
+        }
+    }
+
+    // reads [Name "value"] and returns the index after it
+    private static int parseTag(String text, int i, Map<String, String> tags) {
+        int close = text.indexOf(']', i);
+        int open = text.indexOf('"', i);
+        if (close < 0 || open < 0 || open > close) {
+            throw new IllegalArgumentException("bad PGN tag at " + i);
+        }
+        String name = text.substring(i + 1, open).trim();
+        StringBuilder value = new StringBuilder();
+        int k = open + 1;
+        for (; k < text.length() && text.charAt(k) != '"'; k++) {
+            char c = text.charAt(k);
+            if (c == '\\' && k + 1 < text.length()) {
+                c = text.charAt(++k);
+            }
+            value.append(c);
+        }
+        close = text.indexOf(']', k);
+        if (close < 0) {
+            throw new IllegalArgumentException("bad PGN tag at " + i);
+        }
+        tags.put(name, value.toString());
+        return close + 1;
+    }
+
+    private static int skipVariation(String text, int i) {
+        int depth = 0;
+        for (; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c == '{') {
+                i = skipPast(text, i, '}') - 1;
+            } else if (c == '(') {
+                depth++;
+            } else if (c == ')' && --depth == 0) {
+                return i + 1;
+            }
+        }
+        return i;
+    }
+
+    private static int skipPast(String text, int i, char end) {
+        int at = text.indexOf(end, i + 1);
+        return at < 0 ? text.length() : at + 1;
+    }
+
+    private static int skipToken(String text, int i) {
+        while (i < text.length() && text.charAt(i) > ' ' && "{}();".indexOf(text.charAt(i)) < 0) {
+            i++;
+        }
+        return i;
+    }
+
+    private static int skipSpaces(String text, int i) {
+        while (i < text.length() && text.charAt(i) <= ' ') {
+            i++;
+        }
+        return i;
+    }
+
+    private static boolean isFile(char c) {
+        return c >= 'a' && c <= 'h';
+    }
+
+    private static boolean isRank(char c) {
+        return c >= '1' && c <= '8';
+    }
+
+    private static ChessPiece.PieceType pieceType(char c) {
+        return switch (c) {
+            case 'K' -> ChessPiece.PieceType.KING;
+            case 'Q' -> ChessPiece.PieceType.QUEEN;
+            case 'R' -> ChessPiece.PieceType.ROOK;
+            case 'B' -> ChessPiece.PieceType.BISHOP;
+            case 'N' -> ChessPiece.PieceType.KNIGHT;
+            default -> null;
+        };
+    }
+}
@@ -0,0 +1,15 @@
+package chess;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A game decoded from Portable Game Notation
+ *
+ * @param tags   tag pairs in the order they appear, such as {@code Event} and {@code White}
+ * @param moves  the moves of the main line, in order
+ * @param game   the position after the last move
+ * @param result {@code 1-0}, {@code 0-1}, {@code 1/2-1/2} or {@code *} for an unfinished game
+ */
+public record PgnGame(Map<String, String> tags, List<ChessMove> moves, ChessGame game, String result) {
+}
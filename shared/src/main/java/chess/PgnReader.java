@@ -0,0 +1,158 @@
+package chess;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * Splits a stream of Portable Game Notation into the text of one game at a time,
+ * reading the channel through a fixed buffer so files of any size stream through in
+ * constant memory. A game longer than the size limit is skipped rather than held,
+ * and counted in {@link #skipped}.
+ * <p>
+ * A game ends where a line starting with {@code [} follows its move text, which is
+ * where the next game's tag section begins; brackets inside {@code {...}} comments
+ * do not count. Comments do not nest, so the first {@code }} ends one. The text is not
+ * parsed here, so splitting can run on one thread while {@link Pgn#parse} decodes the
+ * games on others. Not thread-safe.
+ */
+public final class PgnReader implements Closeable {
+
+    private static final int BUFFER = 1 << 16;
+    // far beyond any real game, which runs to a few kilobytes even with heavy annotation
+    static final int MAX_GAME = 1 << 20;
+
+    private final ReadableByteChannel channel;
+    private final int maxGame;
+    private final ByteBuffer buffer = ByteBuffer.allocate(BUFFER).flip();
+    // bytes of the game being read
+    private byte[] game = new byte[4096];
+    private int length;
+    private boolean oversized;
+    private long skipped;
+    private boolean lineStart = true;
+    private boolean inMoves;
+    private boolean inComment;
+
+    public PgnReader(ReadableByteChannel channel) {
+        this(channel, MAX_GAME);
+    }
+
+    /**
+     * @param maxGame longest game text, in bytes, that is returned rather than skipped
+     */
+    public PgnReader(ReadableByteChannel channel, int maxGame) {
+        this.channel = channel;
+        this.maxGame = maxGame;
+    }
+
+    public static PgnReader open(Path file) throws IOException {
+        return new PgnReader(FileChannel.open(file, StandardOpenOption.READ));
+    }
+
+    /**
+     * @return the text of the next game, tags included, or null at the end of the input
+     */
+    public String next() throws IOException {
+        while (true) {
+            if (!buffer.hasRemaining()) {
+                buffer.clear();
+                int read = channel.read(buffer);
+                buffer.flip();
+                if (read < 0) {
+                    if (oversized) {
+                        discard();
+                        return null;
+                    }
+                    return isBlank() ? null : take();
+                }
+                continue;
+            }
+            byte[] bytes = buffer.array();
+            int limit = buffer.limit();
+            for (int i = buffer.position(); i < limit; i++) {
+                byte b = bytes[i];
+                if (b == '\n') {
+                    lineStart = true;
+                } else if (lineStart && b != ' ' && b != '\t' && b != '\r') {
+                    lineStart = false;
+                    if (b == '[' && !inComment) {
+                        if (inMoves && !oversized) {
+                            // leave the bracket for the next call, which starts the next game with it
+                            buffer.position(i);
+                            lineStart = true;
+                            return take();
+                        }
+                        if (inMoves) {
+                            // the bracket starts the next game, which is read on from here
+                            discard();
+                        }
+                    } else {
+                        inMoves = true;
+                    }
+                }
+                if (inMoves) {
+                    if (b == '{') {
+                        inComment = true;
+                    } else if (b == '}') {
+                        inComment = false;
+                    }
+                }
+                if (length == maxGame) {
+                    oversized = true;
+                } else {
+                    if (length == game.length) {
+                        game = Arrays.copyOf(game, Math.min(length * 2, maxGame));
+                    }
+                    game[length++] = b;
+                }
+            }
+            buffer.position(limit);
+        }
+    }
+
+    /**
+     * @return how many games so far were longer than the size limit and skipped
+     */
+    public long skipped() {
+        return skipped;
+    }
+
+    private boolean isBlank() {
+        for (int i = 0; i < length; i++) {
+            if (game[i] > ' ') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private String take() {
+        String text = new String(game, 0, length, StandardCharsets.UTF_8);
+        reset();
+        return text;
+    }
+
+    private void discard() {
+        skipped++;
+        reset();
+    }
+
+    private void reset() {
+        length = 0;
+        oversized = false;
+        inMoves = false;
+        inComment = false;
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
@@ -0,0 +1,89 @@
+package chess;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Reports the legal move count and check, mate or stalemate state of the side to
+ * move, for one game or for a large batch of games spread across a fork/join pool.
+ */
+public final class PositionAnalysis {
+
+    // games analysed in place by one task before the batch is split further
+    private static final int BATCH = 16;
+
+    public enum Status {
+        NORMAL,
+        CHECK,
+        CHECKMATE,
+        STALEMATE
+    }
+
+    /**
+     * Analysis of the position from the point of view of the side to move
+     */
+    public record Report(ChessGame.TeamColor sideToMove, int legalMoves, Status status) {
+    }
+
+    private PositionAnalysis() {
+    }
+
+    public static Report analyze(ChessGame game) {
+        return analyze(game, new MoveList());
+    }
+
+    /**
+     * Analyses every game in the pool, returning reports in the same order. The games
+     * must be distinct objects that no other thread changes during the call.
+     */
+    public static List<Report> analyzeAll(List<ChessGame> games, ForkJoinPool pool) {
+        Report[] reports = new Report[games.size()];
+        pool.invoke(new AnalyzeTask(games, reports, 0, reports.length));
+        return Arrays.asList(reports);
+    }
+
+    private static Report analyze(ChessGame game, MoveList moves) {
+        ChessBoard board = game.getBoard();
+        ChessGame.TeamColor side = game.getTeamTurn();
+        moves.clear();
+        MoveGenerator.legalMoves(board, side, board.occupancy(side), moves);
+        boolean check = game.isInCheck(side);
+        Status status;
+        if (moves.isEmpty()) {
+            status = check ? Status.CHECKMATE : Status.STALEMATE;
+        } else {
+            status = check ? Status.CHECK : Status.NORMAL;
+        }
+        return new Report(side, moves.size(), status);
+    }
+
+    private static final class AnalyzeTask extends RecursiveAction {
+
+        private final List<ChessGame> games;
+        private final Report[] reports;
+        private final int from;
+        private final int to;
+
+        AnalyzeTask(List<ChessGame> games, Report[] reports, int from, int to) {
+            this.games = games;
+            this.reports = reports;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= BATCH) {
+                MoveList moves = new MoveList();
+                for (int i = from; i < to; i++) {
+                    reports[i] = analyze(games.get(i), moves);
+                }
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            invokeAll(new AnalyzeTask(games, reports, from, mid), new AnalyzeTask(games, reports, mid, to));
+        }
+    }
+}
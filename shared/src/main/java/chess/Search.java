@@ -0,0 +1,268 @@
+package chess;
+
+/**
+ * One negamax alpha-beta search with iterative deepening, run on a private copy of
+ * the board. Move lists are allocated once per ply up front, so the search itself
+ * allocates nothing per node.
+ * <p>
+ * Results are stored in a {@link TranspositionTable} that may be shared with other
+ * searches. A stored result cuts the search off when it is deep enough, and its
+ * best move is otherwise searched first; {@link MoveOrdering} sorts the rest.
+ * <p>
+ * At depth zero a quiescence search keeps playing captures until the position is
+ * quiet, so the evaluation is never taken in the middle of an exchange. Captures that
+ * {@link StaticExchange} shows to lose material are skipped there.
+ * <p>
+ * For a Lazy SMP search, {@link Engine} runs several of these on their own board
+ * copies against one table. Helpers (every id but 0) begin at alternating depths so
+ * the threads spread out over the tree and fill the table for each other.
+ */
+final class Search {
+
+    static final int MAX_PLY = 128;
+    static final int MATE = 30_000;
+    static final int INFINITY = 32_000;
+
+    // how many interior nodes pass between clock reads
+    private static final int CLOCK_INTERVAL = 1024;
+
+    private final ChessBoard board;
+    private final ChessGame.TeamColor root;
+    private final SearchLimits limits;
+    private final TranspositionTable table;
+    private final Engine.StopSignal stop;
+    private final Engine.StopSignal finished;
+    private final long deadline;
+    private final long nodeLimit;
+    private final int firstDepth;
+    private final MoveList[] plies = new MoveList[MAX_PLY];
+    private final MoveOrdering ordering = new MoveOrdering();
+    private final StaticExchange exchange = new StaticExchange();
+
+    private long nodes;
+    private int untilClock = CLOCK_INTERVAL;
+    private boolean stopped;
+
+    /**
+     * @param stop     signal from the caller, checked along with the deadline
+     * @param finished raised by the main search when it is done, to end the helpers
+     * @param deadline {@link System#nanoTime} to stop at
+     * @param id       0 for the main search, else a helper number
+     */
+    Search(ChessBoard board, ChessGame.TeamColor sideToMove, SearchLimits limits, TranspositionTable table,
+           Engine.StopSignal stop, Engine.StopSignal finished, long deadline, int id) {
+        this.board = board;
+        this.root = sideToMove;
+        this.limits = limits;
+        this.table = table;
+        this.stop = stop;
+        this.finished = finished;
+        this.deadline = deadline;
+        // each thread gets an even share of the node budget
+        this.nodeLimit = (limits.nodes() + limits.threads() - 1) / limits.threads();
+        this.firstDepth = 1 + (id & 1);
+        for (int i = 0; i < MAX_PLY; i++) {
+            plies[i] = new MoveList();
+        }
+    }
+
+    Engine.Result run() {
+        long start = System.nanoTime();
+        MoveList moves = plies[0];
+        MoveGenerator.legalMoves(board, root, board.occupancy(root), moves);
+        if (moves.isEmpty()) {
+            return new Engine.Result(null, inCheck(root) ? -MATE : 0, 0, 0, System.nanoTime() - start);
+        }
+
+        ordering.order(moves, 0, TranspositionTable.move(table.probe(key(root))), board, root);
+        int bestMove = moves.get(0);
+        int bestScore = -INFINITY;
+        int completed = 0;
+        int maxDepth = limits.depth() == 0 ? MAX_PLY - 1 : Math.min(limits.depth(), MAX_PLY - 1);
+        for (int depth = firstDepth; depth <= maxDepth; depth++) {
+            int iterationBest = -1;
+            int alpha = -INFINITY;
+            for (int i = 0; i < moves.size(); i++) {
+                int move = moves.get(i);
+                int undo = board.makeMove(move);
+                int score = -negamax(depth - 1, 1, -INFINITY, -alpha, ChessGame.opponent(root));
+                board.unmakeMove(move, undo);
+                if (stopped) {
+                    break;
+                }
+                if (score > alpha) {
+                    alpha = score;
+                    iterationBest = i;
+                }
+            }
+            // the previous best is searched first, so a move that beat it before the stop is still better
+            if (iterationBest >= 0) {
+                bestMove = moves.get(iterationBest);
+                bestScore = alpha;
+                moves.set(iterationBest, moves.get(0));
+                moves.set(0, bestMove);
+            }
+            if (stopped) {
+                break;
+            }
+            table.store(key(root), bestMove, bestScore, depth, TranspositionTable.EXACT);
+            completed = depth;
+            if (Math.abs(bestScore) >= MATE - MAX_PLY) {
+                break;
+            }
+        }
+        // a search stopped before finishing an iteration has no score worth reporting
+        return new Engine.Result(PackedMove.toChessMove(bestMove), completed == 0 ? 0 : bestScore, completed, nodes,
+                System.nanoTime() - start);
+    }
+
+    private int negamax(int depth, int ply, int alpha, int beta, ChessGame.TeamColor side) {
+        if (depth == 0) {
+            return quiesce(ply, alpha, beta, side);
+        }
+        nodes++;
+        if (shouldStop()) {
+            return 0;
+        }
+
+        long key = key(side);
+        long entry = table.probe(key);
+        if (entry != 0 && TranspositionTable.depth(entry) >= depth) {
+            int score = fromTable(TranspositionTable.score(entry), ply);
+            int bound = TranspositionTable.bound(entry);
+            if (bound == TranspositionTable.EXACT
+                    || (bound == TranspositionTable.LOWER && score >= beta)
+                    || (bound == TranspositionTable.UPPER && score <= alpha)) {
+                return score;
+            }
+        }
+
+        MoveList moves = plies[ply];
+        moves.clear();
+        MoveGenerator.legalMoves(board, side, board.occupancy(side), moves);
+        if (moves.isEmpty()) {
+            // mates found closer to the root score higher
+            return inCheck(side) ? -MATE + ply : 0;
+        }
+        ordering.order(moves, ply, TranspositionTable.move(entry), board, side);
+
+        int originalAlpha = alpha;
+        int bestMove = PackedMove.NONE;
+        int best = -INFINITY;
+        ChessGame.TeamColor enemy = ChessGame.opponent(side);
+        for (int i = 0; i < moves.size(); i++) {
+            int move = moves.get(i);
+            int undo = board.makeMove(move);
+            int score = -negamax(depth - 1, ply + 1, -beta, -alpha, enemy);
+            board.unmakeMove(move, undo);
+            if (stopped) {
+                return 0;
+            }
+            if (score > best) {
+                best = score;
+                if (score > alpha) {
+                    alpha = score;
+                    bestMove = move;
+                    if (score >= beta) {
+                        ordering.cutoff(move, ply, depth, side);
+                        break;
+                    }
+                }
+            }
+        }
+        int bound = best >= beta ? TranspositionTable.LOWER
+                : best > originalAlpha ? TranspositionTable.EXACT : TranspositionTable.UPPER;
+        table.store(key, bestMove, toTable(best, ply), depth, bound);
+        return best;
+    }
+
+    private int quiesce(int ply, int alpha, int beta, ChessGame.TeamColor side) {
+        nodes++;
+        if (shouldStop()) {
+            return 0;
+        }
+        if (ply >= MAX_PLY - 1) {
+            return Evaluation.evaluate(board, side);
+        }
+
+        // in check there is no standing pat: every evasion is searched
+        boolean check = inCheck(side);
+        MoveList moves = plies[ply];
+        moves.clear();
+        int best;
+        if (check) {
+            MoveGenerator.legalMoves(board, side, board.occupancy(side), moves);
+            if (moves.isEmpty()) {
+                return -MATE + ply;
+            }
+            best = -INFINITY;
+        } else {
+            best = Evaluation.evaluate(board, side);
+            if (best >= beta) {
+                return best;
+            }
+            alpha = Math.max(alpha, best);
+            MoveGenerator.legalCaptures(board, side, moves);
+        }
+        ordering.order(moves, ply, PackedMove.NONE, board, side);
+
+        ChessGame.TeamColor enemy = ChessGame.opponent(side);
+        for (int i = 0; i < moves.size(); i++) {
+            int move = moves.get(i);
+            if (!check && exchange.evaluate(board, move) < 0) {
+                continue;
+            }
+            int undo = board.makeMove(move);
+            int score = -quiesce(ply + 1, -beta, -alpha, enemy);
+            board.unmakeMove(move, undo);
+            if (stopped) {
+                return 0;
+            }
+            if (score > best) {
+                best = score;
+                if (score > alpha) {
+                    alpha = score;
+                    if (score >= beta) {
+                        break;
+                    }
+                }
+            }
+        }
+        return best;
+    }
+
+    // position key including the side to move, matching ChessGame.zobristKey
+    private long key(ChessGame.TeamColor side) {
+        return side == ChessGame.TeamColor.BLACK ? board.zobristKey() ^ Zobrist.SIDE : board.zobristKey();
+    }
+
+    // mate scores are stored relative to the node, not the root, so they stay right at any ply
+    private static int toTable(int score, int ply) {
+        if (score >= MATE - MAX_PLY) {
+            return score + ply;
+        }
+        return score <= -MATE + MAX_PLY ? score - ply : score;
+    }
+
+    private static int fromTable(int score, int ply) {
+        if (score >= MATE - MAX_PLY) {
+            return score - ply;
+        }
+        return score <= -MATE + MAX_PLY ? score + ply : score;
+    }
+
+    private boolean shouldStop() {
+        if (nodeLimit != 0 && nodes >= nodeLimit) {
+            stopped = true;
+        } else if (--untilClock == 0) {
+            untilClock = CLOCK_INTERVAL;
+            stopped = stop.isStopped() || finished.isStopped() || System.nanoTime() >= deadline;
+        }
+        return stopped;
+    }
+
+    private boolean inCheck(ChessGame.TeamColor side) {
+        int king = board.kingSquare(side);
+        return king >= 0 && board.isAttacked(king, ChessGame.opponent(side));
+    }
+}
@@ -0,0 +1,45 @@
+package chess;
+
+/**
+ * Budget for one {@link Engine} search. The search stops at whichever limit it
+ * reaches first; a limit of zero means that limit does not apply.
+ *
+ * @param depth   deepest iteration to search, in plies
+ * @param nodes   positions to visit before stopping, over all threads
+ * @param millis  wall-clock time to search for
+ * @param threads threads to search with; one thread gives a deterministic search
+ */
+public record SearchLimits(int depth, long nodes, long millis, int threads) {
+
+    public SearchLimits {
+        if (depth < 0 || nodes < 0 || millis < 0) {
+            throw new IllegalArgumentException("search limits cannot be negative");
+        }
+        if (depth == 0 && nodes == 0 && millis == 0) {
+            throw new IllegalArgumentException("search needs a depth, node or time limit");
+        }
+        if (threads < 1) {
+            throw new IllegalArgumentException("search needs at least one thread: " + threads);
+        }
+    }
+
+    public SearchLimits(int depth, long nodes, long millis) {
+        this(depth, nodes, millis, 1);
+    }
+
+    public static SearchLimits depth(int depth) {
+        return new SearchLimits(depth, 0, 0);
+    }
+
+    public static SearchLimits nodes(long nodes) {
+        return new SearchLimits(0, nodes, 0);
+    }
+
+    public static SearchLimits millis(long millis) {
+        return new SearchLimits(0, 0, millis);
+    }
+
+    public SearchLimits withThreads(int threads) {
+        return new SearchLimits(depth, nodes, millis, threads);
+    }
+}
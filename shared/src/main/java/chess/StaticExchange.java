@@ -0,0 +1,81 @@
+package chess;
+
+/**
+ * Static exchange evaluation: the material a capture wins or loses once both sides
+ * have made every worthwhile recapture on its square, worked out from attack sets
+ * without making any moves. Each side recaptures with its least valuable attacker,
+ * and sliders behind a recapturing piece join in as it leaves (x-rays).
+ * <p>
+ * Belongs to one search thread, since it keeps its swap list between calls.
+ */
+final class StaticExchange {
+
+    private static final int TYPES = ChessPiece.PieceType.values().length;
+
+    // recaptures are tried cheapest first
+    private static final ChessPiece.PieceType[] BY_VALUE = {ChessPiece.PieceType.PAWN, ChessPiece.PieceType.KNIGHT,
+            ChessPiece.PieceType.BISHOP, ChessPiece.PieceType.ROOK, ChessPiece.PieceType.QUEEN,
+            ChessPiece.PieceType.KING};
+
+    // evaluation values, except that losing the king outweighs any material, so a king
+    // only ever recaptures last
+    private static final int[] VALUES = Evaluation.VALUES.clone();
+
+    static {
+        VALUES[ChessPiece.PieceType.KING.ordinal()] = 20_000;
+    }
+
+    // gain[d]: material won by the side making capture d, if the exchange stopped there
+    private final int[] gain = new int[32];
+
+    /**
+     * @return centipawns the moving side wins with the capture, negative if it loses material
+     */
+    int evaluate(ChessBoard board, int move) {
+        int from = PackedMove.from(move);
+        int to = PackedMove.to(move);
+        int mover = board.pieceIndex(from);
+        int victim = board.pieceIndex(to);
+        // board indices list white's pieces first
+        ChessGame.TeamColor side = mover < TYPES ? ChessGame.TeamColor.WHITE : ChessGame.TeamColor.BLACK;
+
+        gain[0] = victim < 0 ? 0 : VALUES[victim % TYPES];
+        int onSquare = VALUES[mover % TYPES];
+        int promotion = PackedMove.promotionCode(move);
+        if (promotion != 0) {
+            gain[0] += VALUES[promotion - 1] - VALUES[ChessPiece.PieceType.PAWN.ordinal()];
+            onSquare = VALUES[promotion - 1];
+        }
+
+        long occupied = board.occupied() ^ (1L << from);
+        int depth = 0;
+        side = ChessGame.opponent(side);
+        while (depth < gain.length - 1) {
+            long attackers = board.attackers(to, side, occupied) & occupied;
+            if (attackers == 0) {
+                break;
+            }
+            ChessPiece.PieceType recapturer = null;
+            long bit = 0;
+            for (ChessPiece.PieceType type : BY_VALUE) {
+                long pieces = attackers & board.pieces(side, type);
+                if (pieces != 0) {
+                    recapturer = type;
+                    bit = pieces & -pieces;
+                    break;
+                }
+            }
+            depth++;
+            gain[depth] = onSquare - gain[depth - 1];
+            occupied ^= bit;
+            onSquare = VALUES[recapturer.ordinal()];
+            side = ChessGame.opponent(side);
+        }
+
+        // each side may decline to continue the exchange when that is better for it
+        for (; depth > 0; depth--) {
+            gain[depth - 1] = -Math.max(-gain[depth - 1], gain[depth]);
+        }
+        return gain[0];
+    }
+}
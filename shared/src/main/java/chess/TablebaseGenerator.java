@@ -0,0 +1,369 @@
+package chess;
+
+import java.io.IOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Builds distance-to-mate tablebases for small material configurations by
+ * retrograde analysis, writing files that {@link Tablebases} maps and probes.
+ * <p>
+ * Every position is first scored from its own moves: checkmates, stalemates, and
+ * captures or promotions, which leave for a smaller table that is generated first.
+ * Results then spread backwards one ply at a time: a position lost in n plies makes
+ * every predecessor won in n + 1, and a predecessor whose moves all lose is lost once
+ * the last of them is known. Each ply scans the table in chunks across a fork/join
+ * pool, and predecessors are updated with atomic byte operations.
+ */
+public final class TablebaseGenerator {
+
+    // positions handled in place by one task before a pass is split further
+    private static final int CHUNK = 1 << 12;
+    // pending marker for a position that can at least draw through a capture or promotion
+    private static final int DRAW_EXIT = 0xFF;
+    private static final int NO_WIN = Integer.MAX_VALUE;
+
+    private static final VarHandle BYTES = MethodHandles.arrayElementVarHandle(byte[].class);
+    private static final ChessPiece.PieceType[] PROMOTIONS = {ChessPiece.PieceType.QUEEN,
+            ChessPiece.PieceType.ROOK, ChessPiece.PieceType.BISHOP, ChessPiece.PieceType.KNIGHT};
+
+    private enum Step {
+        INITIALIZE,
+        SETTLE,
+        PROPAGATE
+    }
+
+    private TablebaseGenerator() {
+    }
+
+    public static void generate(String material, Path directory) throws IOException {
+        generate(material, directory, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Writes the tablebase for the material into the directory, first generating any
+     * missing table it can reach through a capture or promotion
+     *
+     * @param material pieces like {@code KRK} or {@code KQKR}, at most four in all
+     * @throws IllegalArgumentException if the material cannot be tabulated
+     */
+    public static void generate(String material, Path directory, ForkJoinPool pool) throws IOException {
+        Files.createDirectories(directory);
+        generate(Material.parse(material), directory, new Tablebases(directory), pool);
+    }
+
+    private static void generate(Material material, Path directory, Tablebases tables, ForkJoinPool pool)
+            throws IOException {
+        for (Material child : children(material)) {
+            if (!Files.isRegularFile(file(directory, child))) {
+                generate(child, directory, tables, pool);
+            }
+        }
+        byte[] values = new Solver(material, tables).solve(pool);
+        Path file = file(directory, material);
+        Path partial = file.resolveSibling(file.getFileName() + ".tmp");
+        Files.write(partial, values);
+        Files.move(partial, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private static Path file(Path directory, Material material) {
+        return directory.resolve(material.name() + Tablebases.SUFFIX);
+    }
+
+    // materials one capture or promotion away; the rest are reached through these
+    private static Set<Material> children(Material material) {
+        Set<Material> children = new LinkedHashSet<>();
+        for (int slot = 2; slot < material.pieceCount(); slot++) {
+            children.add(material.without(slot));
+            if (Material.type(material.piece(slot)) == ChessPiece.PieceType.PAWN) {
+                for (ChessPiece.PieceType type : PROMOTIONS) {
+                    children.add(material.promoted(slot, type));
+                }
+            }
+        }
+        return children;
+    }
+
+    private static final class Solver {
+
+        private final Material material;
+        private final Tablebases tables;
+        // final table bytes, see Tablebases
+        private final byte[] values;
+        // best result through captures and promotions, applied on its ply unless beaten
+        private final byte[] pending;
+        // moves within the material whose results are not yet known to lose
+        private final byte[] counters;
+
+        Solver(Material material, Tablebases tables) {
+            this.material = material;
+            this.tables = tables;
+            this.values = new byte[material.size()];
+            this.pending = new byte[material.size()];
+            this.counters = new byte[material.size()];
+        }
+
+        byte[] solve(ForkJoinPool pool) {
+            long longest = pool.invoke(new Pass(this, Step.INITIALIZE, 0, 0, values.length));
+            for (int plies = 0; ; plies++) {
+                pool.invoke(new Pass(this, Step.SETTLE, plies, 0, values.length));
+                long settled = pool.invoke(new Pass(this, Step.PROPAGATE, plies, 0, values.length));
+                if (settled == 0 && plies >= longest) {
+                    return values;
+                }
+            }
+        }
+
+        // the sum of positions settled on the ply, or for initializing the longest pending distance
+        long run(Step step, int plies, int from, int to) {
+            ChessBoard board = new ChessBoard();
+            MoveList moves = new MoveList();
+            int[] squares = new int[material.pieceCount()];
+            long result = 0;
+            for (int index = from; index < to; index++) {
+                switch (step) {
+                    case INITIALIZE -> {
+                        material.squares(index, squares);
+                        if (place(board, squares)) {
+                            result = Math.max(result, initialize(index, board, moves));
+                            clear(board, squares);
+                        }
+                    }
+                    case SETTLE -> settle(index, plies);
+                    case PROPAGATE -> {
+                        if (Byte.toUnsignedInt(values[index]) == Tablebases.encode(plies)) {
+                            material.squares(index, squares);
+                            place(board, squares);
+                            propagate(index, plies, board, squares);
+                            clear(board, squares);
+                            result++;
+                        }
+                    }
+                }
+            }
+            return result;
+        }
+
+        // scores the position from its own moves and returns the distance of any pending result
+        private int initialize(int index, ChessBoard board, MoveList moves) {
+            ChessGame.TeamColor side = material.side(index);
+            ChessGame.TeamColor enemy = ChessGame.opponent(side);
+            if (board.isAttacked(board.kingSquare(enemy), side)) {
+                return 0;
+            }
+            moves.clear();
+            MoveGenerator.legalMoves(board, side, board.occupancy(side), moves);
+            if (moves.isEmpty()) {
+                if (board.isAttacked(board.kingSquare(side), enemy)) {
+                    values[index] = (byte) Tablebases.encode(0);
+                }
+                return 0;
+            }
+
+            int quiet = 0;
+            int fastestWin = NO_WIN;
+            int slowestLoss = -1;
+            boolean draw = false;
+            for (int i = 0; i < moves.size(); i++) {
+                int move = moves.get(i);
+                if (!PackedMove.isCapture(move) && PackedMove.promotionCode(move) == 0) {
+                    quiet++;
+                    continue;
+                }
+                int undo = board.makeMove(move);
+                int reply = tables.code(board, enemy);
+                board.unmakeMove(move, undo);
+                if (reply < 0) {
+                    throw new IllegalStateException("no tablebase after " + PackedMove.toChessMove(move)
+                            + " in " + material);
+                }
+                if (Tablebases.isLoss(reply)) {
+                    fastestWin = Math.min(fastestWin, Tablebases.plies(reply) + 1);
+                } else if (Tablebases.isWin(reply)) {
+                    slowestLoss = Math.max(slowestLoss, Tablebases.plies(reply) + 1);
+                } else {
+                    draw = true;
+                }
+            }
+            if (Math.max(slowestLoss, fastestWin == NO_WIN ? 0 : fastestWin) > Tablebases.MAX_PLIES) {
+                throw tooLong();
+            }
+            counters[index] = (byte) quiet;
+            if (fastestWin != NO_WIN) {
+                pending[index] = (byte) Tablebases.encode(fastestWin);
+                return fastestWin;
+            } else if (draw) {
+                pending[index] = (byte) DRAW_EXIT;
+            } else if (slowestLoss >= 0) {
+                pending[index] = (byte) Tablebases.encode(slowestLoss);
+                return slowestLoss;
+            }
+            return 0;
+        }
+
+        // applies a capture or promotion result that falls on this ply
+        private void settle(int index, int plies) {
+            int code = Tablebases.encode(plies);
+            if (values[index] != 0 || Byte.toUnsignedInt(pending[index]) != code) {
+                return;
+            }
+            if (Tablebases.isWin(code) || counters[index] == 0) {
+                values[index] = (byte) code;
+            }
+        }
+
+        // passes a result settled on this ply back to every position that could lead to it
+        private void propagate(int index, int plies, ChessBoard board, int[] squares) {
+            if (plies + 1 > Tablebases.MAX_PLIES) {
+                throw tooLong();
+            }
+            ChessGame.TeamColor side = material.side(index);
+            ChessGame.TeamColor mover = ChessGame.opponent(side);
+            int flipped = material.flipSide(index);
+            long occupied = board.occupied();
+            for (int slot = 0; slot < squares.length; slot++) {
+                int piece = material.piece(slot);
+                if (Material.color(piece) != mover) {
+                    continue;
+                }
+                int to = squares[slot];
+                for (long origins = origins(Material.type(piece), mover, to, occupied); origins != 0;
+                     origins &= origins - 1) {
+                    int from = Long.numberOfTrailingZeros(origins);
+                    board.remove(piece, to);
+                    board.place(piece, from);
+                    boolean legal = !board.isAttacked(board.kingSquare(side), mover);
+                    board.remove(piece, from);
+                    board.place(piece, to);
+                    if (legal) {
+                        update(flipped + (from - to) * material.weight(slot), plies);
+                    }
+                }
+            }
+        }
+
+        private void update(int predecessor, int plies) {
+            int next = Tablebases.encode(plies + 1);
+            if (Tablebases.isLoss(Tablebases.encode(plies))) {
+                BYTES.compareAndSet(values, predecessor, (byte) 0, (byte) next);
+                return;
+            }
+            // a compare-and-set loop, since C2 on JDK 21 miscompiles getAndAdd on byte arrays
+            int left;
+            do {
+                left = (byte) BYTES.getVolatile(counters, predecessor);
+            } while (!BYTES.compareAndSet(counters, predecessor, (byte) left, (byte) (left - 1)));
+            if (--left != 0) {
+                return;
+            }
+            // every quiet move loses; the position loses unless a capture or promotion does better
+            int exit = Byte.toUnsignedInt(pending[predecessor]);
+            if (exit == DRAW_EXIT || Tablebases.isWin(exit)) {
+                return;
+            }
+            if (Tablebases.plies(exit) <= plies + 1) {
+                BYTES.compareAndSet(values, predecessor, (byte) 0, (byte) next);
+            }
+            // otherwise the slower exit settles it on its own ply
+        }
+
+        private IllegalStateException tooLong() {
+            return new IllegalStateException(material + " has mates longer than " + Tablebases.MAX_PLIES + " plies");
+        }
+
+        // squares the piece could have moved from to reach the square without capturing
+        private static long origins(ChessPiece.PieceType type, ChessGame.TeamColor color, int to, long occupied) {
+            long empty = ~occupied;
+            return switch (type) {
+                case KING -> Bitboards.kingAttacks(to) & empty;
+                case KNIGHT -> Bitboards.knightAttacks(to) & empty;
+                case BISHOP -> Bitboards.bishopAttacks(to, occupied) & empty;
+                case ROOK -> Bitboards.rookAttacks(to, occupied) & empty;
+                case QUEEN -> Bitboards.queenAttacks(to, occupied) & empty;
+                case PAWN -> {
+                    long bit = 1L << to;
+                    if (color == ChessGame.TeamColor.WHITE) {
+                        long single = (bit >>> 8) & empty & ~Bitboards.RANK_1;
+                        yield single | ((single & Bitboards.RANK_3) >>> 8) & empty;
+                    }
+                    long single = (bit << 8) & empty & ~Bitboards.RANK_8;
+                    yield single | ((single & Bitboards.RANK_6) << 8) & empty;
+                }
+            };
+        }
+
+        // places the pieces, or places none if two share a square or a pawn is on an end rank
+        private boolean place(ChessBoard board, int[] squares) {
+            long seen = 0;
+            for (int slot = 0; slot < squares.length; slot++) {
+                long bit = 1L << squares[slot];
+                boolean pawn = Material.type(material.piece(slot)) == ChessPiece.PieceType.PAWN;
+                if ((seen & bit) != 0 || pawn && (bit & (Bitboards.RANK_1 | Bitboards.RANK_8)) != 0) {
+                    return false;
+                }
+                seen |= bit;
+            }
+            for (int slot = 0; slot < squares.length; slot++) {
+                board.place(material.piece(slot), squares[slot]);
+            }
+            return true;
+        }
+
+        private void clear(ChessBoard board, int[] squares) {
+            for (int slot = 0; slot < squares.length; slot++) {
+                board.remove(material.piece(slot), squares[slot]);
+            }
+        }
+    }
+
+    // runs one step over a range of indices, splitting it across the pool
+    private static final class Pass extends RecursiveTask<Long> {
+
+        private final Solver solver;
+        private final Step step;
+        private final int plies;
+        private final int from;
+        private final int to;
+
+        Pass(Solver solver, Step step, int plies, int from, int to) {
+            this.solver = solver;
+            this.step = step;
+            this.plies = plies;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected Long compute() {
+            if (to - from <= CHUNK) {
+                return solver.run(step, plies, from, to);
+            }
+            int middle = (from + to) >>> 1;
+            Pass left = new Pass(solver, step, plies, from, middle);
+            left.fork();
+            long right = new Pass(solver, step, plies, middle, to).compute();
+            long joined = left.join();
+            return step == Step.INITIALIZE ? Math.max(joined, right) : joined + right;
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("usage: TablebaseGenerator <directory> <material>...");
+            System.exit(2);
+        }
+        Path directory = Path.of(args[0]);
+        for (int i = 1; i < args.length; i++) {
+            long start = System.nanoTime();
+            generate(args[i], directory);
+            System.out.printf("%s: %.1f s%n", args[i], (System.nanoTime() - start) / 1e9);
+        }
+    }
+}
@@ -0,0 +1,162 @@
+package chess;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Probes endgame tablebases written by {@link TablebaseGenerator}: one file per
+ * material configuration, named like {@code KQK.tb}, holding one byte per position.
+ * Files are memory-mapped the first time a position with their material is probed,
+ * and a probe is a single read at the position's index.
+ * <p>
+ * Byte 0 is a draw. Otherwise the byte is one more than the number of plies until
+ * mate, so an even byte means the side to move mates and an odd byte that it gets
+ * mated. Safe to share between threads.
+ */
+public final class Tablebases {
+
+    static final String SUFFIX = ".tb";
+    // keeps every distance in one unsigned byte
+    static final int MAX_PLIES = 253;
+
+    private static final ByteBuffer MISSING = ByteBuffer.allocate(0);
+
+    public enum Outcome {
+        WIN,
+        DRAW,
+        LOSS
+    }
+
+    /**
+     * Tablebase value of a position for the side to move
+     *
+     * @param plies half-moves until mate with best play from both sides, or 0 for a draw
+     */
+    public record Result(Outcome outcome, int plies) {
+    }
+
+    // a material and its mapped table, or MISSING
+    private record Table(Material material, ByteBuffer data) {
+    }
+
+    private final Path directory;
+    private final ConcurrentHashMap<String, ByteBuffer> tables = new ConcurrentHashMap<>();
+    // tables by material signature, so a probe after the first allocates nothing
+    private final AtomicReferenceArray<Table> bySignature = new AtomicReferenceArray<>(Material.SIGNATURES);
+
+    public Tablebases(Path directory) {
+        this.directory = directory;
+    }
+
+    /**
+     * @return the value of the game's position, or null if it has no tablebase here
+     * @throws UncheckedIOException if a tablebase file cannot be mapped
+     */
+    public Result probe(ChessGame game) {
+        int code = code(game.getBoard(), game.getTeamTurn());
+        return code < 0 ? null : result(code);
+    }
+
+    /**
+     * Picks the move that mates fastest, holds the draw, or failing both puts off
+     * mate the longest
+     *
+     * @return the best move, or null if the side to move has no legal move or a
+     * position after one of its moves has no tablebase here
+     */
+    public ChessMove bestMove(ChessGame game) {
+        ChessBoard board = game.getBoard().deepCopy();
+        ChessGame.TeamColor side = game.getTeamTurn();
+        MoveList moves = new MoveList();
+        MoveGenerator.legalMoves(board, side, board.occupancy(side), moves);
+        int best = PackedMove.NONE;
+        int bestRank = Integer.MIN_VALUE;
+        for (int i = 0; i < moves.size(); i++) {
+            int move = moves.get(i);
+            int undo = board.makeMove(move);
+            int code = code(board, ChessGame.opponent(side));
+            board.unmakeMove(move, undo);
+            if (code < 0) {
+                return null;
+            }
+            // ranked for the mover: quick wins, then draws, then slow losses
+            Result reply = result(code);
+            int rank = switch (reply.outcome()) {
+                case LOSS -> 1000 - reply.plies();
+                case DRAW -> 0;
+                case WIN -> reply.plies() - 1000;
+            };
+            if (rank > bestRank) {
+                bestRank = rank;
+                best = move;
+            }
+        }
+        return best == PackedMove.NONE ? null : PackedMove.toChessMove(best);
+    }
+
+    // raw table byte for the position, or -1 if there is no table for its material
+    int code(ChessBoard board, ChessGame.TeamColor side) {
+        int signature = Material.signature(board);
+        if (signature < 0) {
+            return -1;
+        }
+        Table table = bySignature.get(signature);
+        if (table == null) {
+            // racing threads build equal entries, and the mapping itself is made once
+            Material material = Material.of(board);
+            table = new Table(material, table(material));
+            bySignature.set(signature, table);
+        }
+        ByteBuffer data = table.data();
+        return data == MISSING ? -1 : Byte.toUnsignedInt(data.get(table.material().index(board, side)));
+    }
+
+    private ByteBuffer table(Material material) {
+        return tables.computeIfAbsent(material.name(), name -> map(directory.resolve(name + SUFFIX), material));
+    }
+
+    private static ByteBuffer map(Path file, Material material) {
+        if (!Files.isRegularFile(file)) {
+            return MISSING;
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            if (channel.size() != material.size()) {
+                throw new IOException("wrong size for " + material + " tablebase: " + file);
+            }
+            return channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // the parity of the distance tells whether the side to move wins or loses
+    static int encode(int plies) {
+        return plies + 1;
+    }
+
+    static boolean isWin(int code) {
+        return code != 0 && (code & 1) == 0;
+    }
+
+    static boolean isLoss(int code) {
+        return (code & 1) == 1;
+    }
+
+    static int plies(int code) {
+        return code == 0 ? 0 : code - 1;
+    }
+
+    static Result result(int code) {
+        if (code == 0) {
+            return new Result(Outcome.DRAW, 0);
+        }
+        return new Result(isWin(code) ? Outcome.WIN : Outcome.LOSS, plies(code));
+    }
+}
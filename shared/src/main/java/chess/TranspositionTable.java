@@ -0,0 +1,174 @@
+package chess;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * Fixed-size table of search results keyed by 64-bit position hash, kept off-heap and
+ * shared by any number of searching threads without locks.
+ * <p>
+ * The table is split into 64-byte buckets of four entries. An entry is two longs:
+ * the packed data, and the key XORed with that data. Entries are read and written
+ * with opaque (atomic, unordered) accesses, so a reader can see the halves of two
+ * different writes; the XOR check then fails and the entry counts as a miss.
+ * <p>
+ * Data layout: bits 0-15 packed move, 16-31 score, 32-39 depth, 40-41 bound, 42-49
+ * generation. A stored bound is never zero, so data 0 marks an empty entry.
+ */
+public final class TranspositionTable {
+
+    static final int EXACT = 1;
+    static final int LOWER = 2;
+    static final int UPPER = 3;
+
+    // system property giving the size of the default table in megabytes
+    static final String SIZE_PROPERTY = "chess.engine.hashMb";
+    private static final long DEFAULT_MEGABYTES = 64;
+
+    private static final int BUCKET_BYTES = 64;
+    private static final int ENTRIES = 4;
+    // buckets per direct buffer: 2^24 buckets make a 1 GiB buffer
+    private static final int SEGMENT_BITS = 24;
+
+    private static final VarHandle LONGS = MethodHandles.byteBufferViewVarHandle(long[].class,
+            ByteOrder.nativeOrder());
+
+    private final ByteBuffer[] segments;
+    private final long buckets;
+    private volatile int generation;
+
+    /**
+     * @param megabytes memory to reserve; rounded down to whole buckets, minimum one
+     */
+    public TranspositionTable(long megabytes) {
+        if (megabytes <= 0) {
+            throw new IllegalArgumentException("table size must be positive: " + megabytes);
+        }
+        buckets = Math.max(1, megabytes * 1024 * 1024 / BUCKET_BYTES);
+        int count = (int) ((buckets - 1 >>> SEGMENT_BITS) + 1);
+        segments = new ByteBuffer[count];
+        for (int i = 0; i < count; i++) {
+            long size = Math.min(buckets - ((long) i << SEGMENT_BITS), 1L << SEGMENT_BITS) * BUCKET_BYTES;
+            // opaque access needs 8-byte aligned longs; align to the bucket so a bucket is one cache line
+            segments[i] = ByteBuffer.allocateDirect((int) size + BUCKET_BYTES).alignedSlice(BUCKET_BYTES);
+        }
+    }
+
+    /**
+     * @return a table sized by the {@value SIZE_PROPERTY} system property, 64 MB by default
+     */
+    static TranspositionTable fromConfiguration() {
+        return new TranspositionTable(Long.getLong(SIZE_PROPERTY, DEFAULT_MEGABYTES));
+    }
+
+    /**
+     * Starts a new search generation, so entries from earlier searches are replaced first
+     */
+    public void newSearch() {
+        generation = (generation + 1) & 0xFF;
+    }
+
+    /**
+     * Empties the table. Not safe while searches are using it.
+     */
+    public void clear() {
+        for (ByteBuffer segment : segments) {
+            for (int i = 0; i < segment.capacity(); i += 8) {
+                LONGS.setOpaque(segment, i, 0L);
+            }
+        }
+        generation = 0;
+    }
+
+    /**
+     * @return the entry data stored for the key, or 0 if there is none
+     */
+    long probe(long key) {
+        long bucket = bucket(key);
+        ByteBuffer segment = segments[(int) (bucket >>> SEGMENT_BITS)];
+        int base = offset(bucket);
+        for (int i = 0; i < ENTRIES; i++) {
+            int at = base + i * 16;
+            long data = (long) LONGS.getOpaque(segment, at);
+            long check = (long) LONGS.getOpaque(segment, at + 8);
+            if (data != 0 && (check ^ data) == key) {
+                return data;
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * Stores a result, replacing the entry for the same key if there is one, else the
+     * entry from the oldest search, shallowest first
+     *
+     * @param move  packed move, or {@link PackedMove#NONE}
+     * @param score score to store, which must fit in 16 bits
+     * @param bound {@link #EXACT}, {@link #LOWER} or {@link #UPPER}
+     */
+    void store(long key, int move, int score, int depth, int bound) {
+        long bucket = bucket(key);
+        ByteBuffer segment = segments[(int) (bucket >>> SEGMENT_BITS)];
+        int base = offset(bucket);
+        int current = generation;
+        int replace = base;
+        int worst = Integer.MAX_VALUE;
+        for (int i = 0; i < ENTRIES; i++) {
+            int at = base + i * 16;
+            long data = (long) LONGS.getOpaque(segment, at);
+            long check = (long) LONGS.getOpaque(segment, at + 8);
+            if (data == 0 || (check ^ data) == key) {
+                // keep the old best move when a result without one overwrites the same position
+                if (data != 0 && move == PackedMove.NONE) {
+                    move = move(data);
+                }
+                replace = at;
+                break;
+            }
+            int worth = depth(data) - 8 * ((current - generation(data)) & 0xFF);
+            if (worth < worst) {
+                worst = worth;
+                replace = at;
+            }
+        }
+        long data = (move & 0xFFFFL)
+                | (score & 0xFFFFL) << 16
+                | (long) Math.min(depth, 0xFF) << 32
+                | (long) bound << 40
+                | (long) current << 42;
+        LONGS.setOpaque(segment, replace, data);
+        LONGS.setOpaque(segment, replace + 8, key ^ data);
+    }
+
+    static int move(long data) {
+        return (int) (data & 0xFFFF);
+    }
+
+    static int score(long data) {
+        return (short) (data >>> 16);
+    }
+
+    static int depth(long data) {
+        return (int) (data >>> 32) & 0xFF;
+    }
+
+    static int bound(long data) {
+        return (int) (data >>> 40) & 3;
+    }
+
+    private static int generation(long data) {
+        return (int) (data >>> 42) & 0xFF;
+    }
+
+    private long bucket(long key) {
+        // maps the key evenly onto [0, buckets) for any bucket count
+        return Math.unsignedMultiplyHigh(key, buckets);
+    }
+
+    // byte offset of the bucket within its segment
+    private static int offset(long bucket) {
+        return (int) (bucket & ((1L << SEGMENT_BITS) - 1)) * BUCKET_BYTES;
+    }
+}
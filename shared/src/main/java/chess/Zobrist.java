@@ -0,0 +1,53 @@
+package chess;
+
+/**
+ * Random keys for Zobrist hashing of positions.
+ * <p>
+ * A position's key is the XOR of one key per occupied (piece, square) pair, plus
+ * {@link #SIDE} when black is to move. The keys come from a fixed-seed generator so
+ * every JVM computes the same key for the same position, which lets stored keys be
+ * compared across servers and restarts.
+ */
+final class Zobrist {
+
+    // indexed by ChessBoard.index(color, type) * 64 + square
+    private static final long[] PIECE_SQUARE = new long[12 * 64];
+    static final long SIDE;
+
+    static {
+        long seed = 0x2545F4914F6CDD1DL;
+        for (int i = 0; i < PIECE_SQUARE.length; i++) {
+            seed += 0x9E3779B97F4A7C15L;
+            PIECE_SQUARE[i] = mix(seed);
+        }
+        seed += 0x9E3779B97F4A7C15L;
+        SIDE = mix(seed);
+    }
+
+    private Zobrist() {
+    }
+
+    static long piece(int index, int square) {
+        return PIECE_SQUARE[index * 64 + square];
+    }
+
+    /**
+     * @return the piece-square part of the key, computed from scratch
+     */
+    static long hash(long[] pieceBoards) {
+        long key = 0;
+        for (int index = 0; index < pieceBoards.length; index++) {
+            for (long pieces = pieceBoards[index]; pieces != 0; pieces &= pieces - 1) {
+                key ^= piece(index, Long.numberOfTrailingZeros(pieces));
+            }
+        }
+        return key;
+    }
+
+    // splitmix64 finalizer
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
@@ -0,0 +1,112 @@
+package chess;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonParser;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class DrawTests {
+
+    private static ChessMove move(String from, String to) {
+        return new ChessMove(new ChessPosition(from.charAt(1) - '0', from.charAt(0) - 'a' + 1),
+                new ChessPosition(to.charAt(1) - '0', to.charAt(0) - 'a' + 1), null);
+    }
+
+    // knights out and back, returning to the position before the shuffle
+    private static void shuffle(ChessGame game) throws InvalidMoveException {
+        game.makeMove(move("g1", "f3"));
+        game.makeMove(move("g8", "f6"));
+        game.makeMove(move("f3", "g1"));
+        game.makeMove(move("f6", "g8"));
+    }
+
+    @Test
+    @DisplayName("Third Occurrence Is A Draw")
+    public void threefold() throws InvalidMoveException {
+        var game = new ChessGame();
+        shuffle(game);
+        Assertions.assertFalse(game.isDrawByRepetition());
+        game.makeMove(move("g1", "f3"));
+        game.makeMove(move("g8", "f6"));
+        game.makeMove(move("f3", "g1"));
+        Assertions.assertFalse(game.isDrawByRepetition());
+        game.makeMove(move("f6", "g8"));
+        Assertions.assertTrue(game.isDrawByRepetition());
+        Assertions.assertFalse(game.isDrawByFiftyMoves());
+    }
+
+    @Test
+    @DisplayName("Repetition Survives A Reload")
+    public void survivesReload() throws InvalidMoveException {
+        var gson = new Gson();
+        var game = new ChessGame();
+        Assertions.assertFalse(gson.toJson(game).contains("history"), "No history to save yet");
+        shuffle(game);
+        game.makeMove(move("g1", "f3"));
+        game.makeMove(move("g8", "f6"));
+        game.makeMove(move("f3", "g1"));
+
+        String json = gson.toJson(game);
+        Assertions.assertEquals(7, JsonParser.parseString(json).getAsJsonObject().getAsJsonArray("history").size());
+        ChessGame loaded = gson.fromJson(json, ChessGame.class);
+        Assertions.assertEquals(7, loaded.getHalfmoveClock());
+        loaded.makeMove(move("f6", "g8"));
+        Assertions.assertTrue(loaded.isDrawByRepetition());
+
+        // games stored before the history was saved load without one
+        ChessGame legacy = gson.fromJson(json.replaceAll(",\"history\":\\[[^]]*]", ""), ChessGame.class);
+        legacy.makeMove(move("f6", "g8"));
+        Assertions.assertFalse(legacy.isDrawByRepetition());
+    }
+
+    @Test
+    @DisplayName("Only The Ring Is Saved")
+    public void ringBounded() throws InvalidMoveException {
+        var game = ChessGame.fromFen("4k3/8/8/8/8/8/8/1N2K3 w - - 0 1");
+        ChessMove[] cycle = {move("b1", "c3"), move("e8", "d8"), move("c3", "b1"), move("d8", "e8")};
+        for (int ply = 0; ply < 2 * ChessGame.HISTORY; ply++) {
+            game.makeMove(cycle[ply % 4]);
+        }
+        var gson = new Gson();
+        String json = gson.toJson(game);
+        Assertions.assertEquals(ChessGame.HISTORY,
+                JsonParser.parseString(json).getAsJsonObject().getAsJsonArray("history").size());
+        Assertions.assertTrue(gson.fromJson(json, ChessGame.class).isDrawByRepetition());
+    }
+
+    @Test
+    @DisplayName("Pawn Move Clears History")
+    public void pawnMoveResets() throws InvalidMoveException {
+        var game = new ChessGame();
+        shuffle(game);
+        game.makeMove(move("e2", "e4"));
+        Assertions.assertEquals(0, game.getHalfmoveClock());
+        game.makeMove(move("g8", "f6"));
+        game.makeMove(move("g1", "f3"));
+        game.makeMove(move("f6", "g8"));
+        game.makeMove(move("f3", "g1"));
+        game.makeMove(move("g8", "f6"));
+        game.makeMove(move("g1", "f3"));
+        Assertions.assertEquals(6, game.getHalfmoveClock());
+        // the position after e4 has occurred only twice since
+        Assertions.assertFalse(game.isDrawByRepetition());
+    }
+
+    @Test
+    @DisplayName("Hundred Quiet Plies Is A Draw")
+    public void fiftyMoves() throws InvalidMoveException {
+        var game = ChessGame.fromFen("4k3/8/8/8/8/8/8/1N2K3 w - - 0 1");
+        // repetition is not claimed here, so the same shuffle can run all the way
+        ChessMove[] cycle = {move("b1", "c3"), move("e8", "d8"), move("c3", "b1"), move("d8", "e8")};
+        for (int ply = 0; ply < 100; ply++) {
+            Assertions.assertFalse(game.isDrawByFiftyMoves(), "ply " + ply);
+            game.makeMove(cycle[ply % 4]);
+        }
+        Assertions.assertEquals(100, game.getHalfmoveClock());
+        Assertions.assertTrue(game.isDrawByFiftyMoves());
+
+        game.setBoard(game.getBoard());
+        Assertions.assertFalse(game.isDrawByFiftyMoves());
+    }
+}
@@ -0,0 +1,127 @@
+package chess;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+public class EngineTests {
+
+    @Test
+    @DisplayName("Finds Mate In One")
+    public void mateInOne() {
+        var game = Fen.parse("6k1/5ppp/8/8/8/8/8/R5K1 w - - 0 1");
+        var result = Engine.search(game, SearchLimits.depth(3));
+
+        Assertions.assertEquals(new ChessMove(new ChessPosition(1, 1), new ChessPosition(8, 1), null), result.move());
+        Assertions.assertTrue(result.score() >= Search.MATE - Search.MAX_PLY, "Mate should score as mate");
+    }
+
+    @Test
+    @DisplayName("Takes A Hanging Queen")
+    public void takesHangingQueen() {
+        var game = Fen.parse("4k3/8/8/3q4/8/8/3R4/4K3 w - - 0 1");
+        var move = Engine.bestMove(game, SearchLimits.depth(2));
+
+        Assertions.assertEquals(new ChessMove(new ChessPosition(2, 4), new ChessPosition(5, 4), null), move);
+    }
+
+    @Test
+    @DisplayName("Black Avoids Losing Its Queen")
+    public void blackKeepsQueen() {
+        var game = Fen.parse("4k3/8/8/8/3q4/8/8/3RK3 b - - 0 1");
+        var move = Engine.bestMove(game, SearchLimits.depth(2));
+        Assertions.assertNotNull(move);
+
+        var board = game.getBoard().deepCopy();
+        board.makeMove(move);
+        Assertions.assertTrue(Evaluation.evaluate(board, ChessGame.TeamColor.BLACK) > 0, "Black stays ahead");
+    }
+
+    @Test
+    @DisplayName("Respects Node Budget")
+    public void nodeBudget() {
+        var game = new ChessGame();
+        var result = Engine.search(game, SearchLimits.nodes(5_000));
+
+        Assertions.assertNotNull(result.move());
+        Assertions.assertTrue(game.validMoves(result.move().getStartPosition()).contains(result.move()));
+        Assertions.assertTrue(result.nodes() < 5_000 + 256, "Search ran past its budget: " + result.nodes());
+        Assertions.assertEquals(new ChessGame(), game, "Search changed the game");
+    }
+
+    @Test
+    @DisplayName("No Move When Mated")
+    public void noMoveWhenMated() {
+        var game = Fen.parse("rnb1kbnr/pppp1ppp/8/4p3/6Pq/5P2/PPPPP2P/RNBQKBNR w - - 1 3");
+        var result = Engine.search(game, SearchLimits.millis(100));
+
+        Assertions.assertNull(result.move());
+        Assertions.assertEquals(-Search.MATE, result.score());
+    }
+
+    @Test
+    @DisplayName("Single Thread Is Deterministic")
+    public void deterministic() {
+        var game = Fen.parse(Perft.REFERENCES.get(1).fen());
+        var first = Engine.search(game, SearchLimits.depth(4), new TranspositionTable(4));
+        var second = Engine.search(game, SearchLimits.depth(4), new TranspositionTable(4));
+
+        Assertions.assertEquals(first.move(), second.move());
+        Assertions.assertEquals(first.score(), second.score());
+        Assertions.assertEquals(first.nodes(), second.nodes());
+    }
+
+    @Test
+    @DisplayName("Helper Threads Share The Search")
+    public void helperThreads() {
+        var game = Fen.parse("6k1/5ppp/8/8/8/8/8/R5K1 w - - 0 1");
+        var result = Engine.search(game, SearchLimits.depth(4).withThreads(4), new TranspositionTable(4));
+
+        Assertions.assertEquals(new ChessMove(new ChessPosition(1, 1), new ChessPosition(8, 1), null), result.move());
+        Assertions.assertTrue(result.score() >= Search.MATE - Search.MAX_PLY);
+    }
+
+    @Test
+    @DisplayName("Stop Signal Ends The Search")
+    public void stopSignal() throws Exception {
+        var stop = new Engine.StopSignal();
+        var game = new ChessGame();
+        var search = CompletableFuture.supplyAsync(() ->
+                Engine.search(game, SearchLimits.millis(60_000).withThreads(2), new TranspositionTable(4), stop));
+        Thread.sleep(100);
+        stop.stop();
+
+        var result = search.get(10, TimeUnit.SECONDS);
+        Assertions.assertNotNull(result.move());
+        Assertions.assertTrue(game.validMoves(result.move().getStartPosition()).contains(result.move()));
+    }
+
+    @Test
+    @DisplayName("Stop Before First Iteration Reports No Depth")
+    public void noCompletedIteration() {
+        var game = new ChessGame();
+        var result = Engine.search(game, SearchLimits.nodes(1), new TranspositionTable(4));
+
+        Assertions.assertEquals(0, result.depth());
+        Assertions.assertEquals(0, result.score(), "An unfinished iteration has no score");
+        Assertions.assertTrue(game.validMoves(result.move().getStartPosition()).contains(result.move()));
+
+        // helpers starting at depth two cannot complete an iteration of a depth one search
+        var helped = Engine.search(game, SearchLimits.depth(1).withThreads(4), new TranspositionTable(4));
+        Assertions.assertEquals(1, helped.depth());
+        Assertions.assertTrue(Math.abs(helped.score()) < Search.MATE - Search.MAX_PLY, "Score " + helped.score());
+    }
+
+    @Test
+    @DisplayName("Evaluation Is Symmetric")
+    public void evaluationSymmetric() {
+        var board = new ChessGame().getBoard();
+        Assertions.assertEquals(0, Evaluation.evaluate(board, ChessGame.TeamColor.WHITE));
+
+        var mirrored = Fen.parse("4k3/pp6/8/8/8/8/PP6/4K3 w - - 0 1").getBoard();
+        Assertions.assertEquals(0, Evaluation.evaluate(mirrored, ChessGame.TeamColor.BLACK));
+    }
+}
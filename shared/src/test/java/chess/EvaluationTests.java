@@ -0,0 +1,72 @@
+package chess;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.SplittableRandom;
+
+public class EvaluationTests {
+
+    @Test
+    @DisplayName("Incremental Sums Match A Full Recompute")
+    public void incrementalMatchesRecompute() {
+        var random = new SplittableRandom(20);
+        var moves = new MoveList();
+        for (Perft.Reference reference : Perft.REFERENCES) {
+            var board = Fen.parse(reference.fen()).getBoard();
+            assertConsistent(board);
+            var side = Fen.parse(reference.fen()).getTeamTurn();
+            int[] played = new int[60];
+            int[] undos = new int[60];
+            int ply = 0;
+            for (; ply < played.length; ply++) {
+                moves.clear();
+                MoveGenerator.legalMoves(board, side, board.occupancy(side), moves);
+                if (moves.isEmpty()) {
+                    break;
+                }
+                played[ply] = moves.get(random.nextInt(moves.size()));
+                undos[ply] = board.makeMove(played[ply]);
+                assertConsistent(board);
+                side = ChessGame.opponent(side);
+            }
+            while (ply-- > 0) {
+                board.unmakeMove(played[ply], undos[ply]);
+                assertConsistent(board);
+            }
+            Assertions.assertEquals(Fen.parse(reference.fen()).getBoard(), board);
+        }
+    }
+
+    @Test
+    @DisplayName("Edits And Copies Keep The Sums")
+    public void editsAndCopies() {
+        var board = new ChessBoard();
+        board.resetBoard();
+        assertConsistent(board);
+        Assertions.assertEquals(Evaluation.MAX_PHASE, board.phase);
+
+        board.addPiece(new ChessPosition(4, 4), ChessPiece.of(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.QUEEN));
+        board.addPiece(new ChessPosition(1, 4), null);
+        board.addPiece(new ChessPosition(8, 1), ChessPiece.of(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.PAWN));
+        assertConsistent(board);
+        assertConsistent(board.deepCopy());
+    }
+
+    @Test
+    @DisplayName("Bare Kings Use The Endgame Tables")
+    public void endgameBlend() {
+        var board = Fen.parse("8/8/8/3k4/8/8/8/K7 w - - 0 1").getBoard();
+        Assertions.assertEquals(0, board.phase);
+        // centralised black king against a cornered white one
+        Assertions.assertEquals(-(40 + 50), Evaluation.evaluate(board, ChessGame.TeamColor.WHITE));
+    }
+
+    private static void assertConsistent(ChessBoard board) {
+        int[] expected = Evaluation.recompute(board.pieceBoards);
+        Assertions.assertEquals(expected[0], board.middlegame, "middlegame sum");
+        Assertions.assertEquals(expected[1], board.endgame, "endgame sum");
+        Assertions.assertEquals(expected[2], board.phase, "phase");
+    }
+}
@@ -0,0 +1,83 @@
+package chess;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class FenTests {
+
+    @Test
+    @DisplayName("Start Position Round Trips")
+    public void startPosition() {
+        Assertions.assertEquals(Fen.START, new ChessGame().toFen());
+        Assertions.assertEquals(new ChessGame(), ChessGame.fromFen(Fen.START));
+    }
+
+    @Test
+    @DisplayName("Reference Positions Round Trip")
+    public void referencePositions() {
+        var out = new StringBuilder();
+        for (Perft.Reference reference : Perft.REFERENCES) {
+            ChessGame game = ChessGame.fromFen(reference.fen());
+            // castling and en passant are not kept, so compare placement and side to move
+            String[] fields = reference.fen().split(" ");
+            Assertions.assertEquals(fields[0] + " " + fields[1] + " - - 0 1", game.toFen(), reference.name());
+
+            out.setLength(0);
+            game.appendFen(out);
+            Assertions.assertEquals(game, ChessGame.fromFen(out.toString()), reference.name());
+        }
+    }
+
+    @Test
+    @DisplayName("Parsed Game Matches Board Built By Hand")
+    public void matchesAddPiece() {
+        var board = new ChessBoard();
+        board.addPiece(new ChessPosition(8, 5), new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.KING));
+        board.addPiece(new ChessPosition(7, 1), new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.PAWN));
+        board.addPiece(new ChessPosition(1, 5), new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.KING));
+        board.addPiece(new ChessPosition(3, 8), new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.ROOK));
+        var expected = new ChessGame();
+        expected.setBoard(board);
+        expected.setTeamTurn(ChessGame.TeamColor.BLACK);
+
+        ChessGame parsed = ChessGame.fromFen("  4k3/P7/8/8/8/7r/8/4K3   b  KQkq e3 12 40 ");
+        Assertions.assertEquals(expected, parsed);
+        Assertions.assertEquals(board, parsed.getBoard());
+        Assertions.assertEquals("4k3/P7/8/8/8/7r/8/4K3 b - - 12 1", parsed.toFen());
+        Assertions.assertEquals(12, parsed.getHalfmoveClock());
+        Assertions.assertEquals(ChessGame.TeamColor.WHITE, ChessGame.fromFen("8/8/8/8/8/8/8/8").getTeamTurn());
+    }
+
+    @Test
+    @DisplayName("Halfmove Clock Round Trips")
+    public void halfmoveClock() throws InvalidMoveException {
+        var game = ChessGame.fromFen("4k3/8/8/8/8/8/8/1N2K3 w - - 97 60");
+        Assertions.assertEquals(97, game.getHalfmoveClock());
+        Assertions.assertFalse(game.isDrawByFiftyMoves());
+
+        game.makeMove(new ChessMove(new ChessPosition(1, 2), new ChessPosition(3, 3), null));
+        game.makeMove(new ChessMove(new ChessPosition(8, 5), new ChessPosition(8, 4), null));
+        game.makeMove(new ChessMove(new ChessPosition(3, 3), new ChessPosition(1, 2), null));
+        Assertions.assertTrue(game.isDrawByFiftyMoves());
+        Assertions.assertFalse(game.isDrawByRepetition());
+
+        ChessGame reloaded = ChessGame.fromFen(game.toFen());
+        Assertions.assertEquals("3k4/8/8/8/8/8/8/1N2K3 b - - 100 1", game.toFen());
+        Assertions.assertTrue(reloaded.isDrawByFiftyMoves());
+        Assertions.assertEquals(0, ChessGame.fromFen("8/8/8/8/8/8/8/8 w KQ").getHalfmoveClock());
+    }
+
+    @Test
+    @DisplayName("Malformed Positions Rejected")
+    public void malformed() {
+        for (String fen : new String[]{"", "8/8/8/8/8/8/8 w", "8/8/8/8/8/8/8/8/8 w", "9/8/8/8/8/8/8/8 w",
+                "7/8/8/8/8/8/8/8 w", "8P/8/8/8/8/8/8/8 w", "x7/8/8/8/8/8/8/8 w", "8/8/8/8/8/8/8/8 x",
+                "8/8/8/8/8/8/8/8 white", "44/8/8/8/8/8/8/8 w", "17/8/8/8/8/8/8/8 w", "8/8/8/8/8/8/8/8 bx",
+                "8/8/8/8/8/8/8/8 wb", "8/8/8/8/8/8/8/8 W", "8/8/8/8/8/8/8/7 w", "8/8/8/8/8/8/8/7P1 w",
+                "8/8/8/4P4/8/8/8/8 w", "8/8/8/8/8/8/8/8/ w", "8/8/8//8/8/8/8 w", "8/8/8/8/8/8/8/8 w - - x 1",
+                "8/8/8/8/8/8/8/8 w - - -1 1", "8/8/8/8/8/8/8/8 w - - 99999999999 1"}) {
+            Assertions.assertThrows(IllegalArgumentException.class, () -> ChessGame.fromFen(fen), fen);
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package chess;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class KingSquareTests {
+
+    @Test
+    @DisplayName("King Square Follows Moves")
+    public void kingSquareFollowsMoves() throws InvalidMoveException {
+        var game = new ChessGame();
+        Assertions.assertEquals(Bitboards.square(1, 5), game.getBoard().kingSquare(ChessGame.TeamColor.WHITE));
+
+        game.makeMove(new ChessMove(new ChessPosition(2, 5), new ChessPosition(4, 5), null));
+        game.makeMove(new ChessMove(new ChessPosition(7, 5), new ChessPosition(5, 5), null));
+        game.makeMove(new ChessMove(new ChessPosition(1, 5), new ChessPosition(2, 5), null));
+
+        Assertions.assertEquals(Bitboards.square(2, 5), game.getBoard().kingSquare(ChessGame.TeamColor.WHITE));
+        Assertions.assertEquals(new ChessPosition(2, 5), game.findKing(ChessGame.TeamColor.WHITE, game.getBoard()));
+    }
+
+    @Test
+    @DisplayName("Missing King Is Never In Check")
+    public void missingKing() {
+        var board = new ChessBoard();
+        board.addPiece(new ChessPosition(4, 4), new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.QUEEN));
+        var game = new ChessGame();
+        game.setBoard(board);
+
+        Assertions.assertEquals(-1, board.kingSquare(ChessGame.TeamColor.WHITE));
+        Assertions.assertNull(game.findKing(ChessGame.TeamColor.WHITE, board));
+        Assertions.assertFalse(game.isInCheck(ChessGame.TeamColor.WHITE));
+    }
+
+    @Test
+    @DisplayName("Duplicate Kings Use The Lowest Square")
+    public void duplicateKings() {
+        var board = new ChessBoard();
+        var king = new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.KING);
+        board.addPiece(new ChessPosition(5, 5), king);
+        board.addPiece(new ChessPosition(1, 1), king);
+        board.addPiece(new ChessPosition(8, 5), new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.ROOK));
+        var game = new ChessGame();
+        game.setBoard(board);
+
+        Assertions.assertEquals(new ChessPosition(1, 1), game.findKing(ChessGame.TeamColor.WHITE, board));
+        Assertions.assertFalse(game.isInCheck(ChessGame.TeamColor.WHITE), "Only the king on the lowest square counts");
+
+        board.addPiece(new ChessPosition(1, 1), null);
+        Assertions.assertTrue(game.isInCheck(ChessGame.TeamColor.WHITE), "Remaining king is attacked by the rook");
+    }
+}
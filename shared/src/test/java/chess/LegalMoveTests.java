@@ -0,0 +1,169 @@
+package chess;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+public class LegalMoveTests {
+
+    @Test
+    @DisplayName("Any Legal Move Agrees With Full Generation")
+    public void agreesWithGeneration() {
+        for (Perft.Reference reference : Perft.REFERENCES) {
+            var game = Fen.parse(reference.fen());
+            walk(game.getBoard(), game.getTeamTurn(), Math.min(3, reference.counts().length));
+        }
+    }
+
+    @Test
+    @DisplayName("Pin And Check Generation Matches Trial Moves")
+    public void matchesTrialMoves() {
+        List<String> positions = List.of(
+                "r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w - - 0 1",
+                "8/2p5/3p4/KP5r/1R3p1k/8/4P1P1/8 w - - 0 1",
+                "r3k2r/Pppp1ppp/1b3nbN/nP6/BBP1P3/q4N2/Pp1P2PP/R2Q1RK1 w - - 0 1",
+                "rnbq1k1r/pp1Pbppp/2p5/8/2B5/8/PPP1NnPP/RNBQK2R w - - 1 8",
+                // rook pinned on a diagonal, bishop pinned on a file
+                "4k3/4r3/8/b7/8/8/3RB3/4K3 w - - 0 1",
+                // double check by bishop and rook
+                "3k4/8/8/8/1b6/8/8/R3K2r w - - 0 1",
+                // check answered by capturing or blocking
+                "4k3/8/8/8/8/8/1B6/r3K3 w - - 0 1",
+                "4k3/8/8/8/8/5n2/6B1/R3K3 w - - 0 1",
+                // the king may not step back along the checking ray
+                "4k3/4r3/8/8/8/8/8/4K3 w - - 0 1",
+                // pinned pawns, including one that could promote
+                "1r2k3/1P6/8/8/1K1p3q/8/2P5/8 w - - 0 1");
+        for (String fen : positions) {
+            var game = Fen.parse(fen);
+            compare(game.getBoard(), game.getTeamTurn(), 3, fen);
+        }
+    }
+
+    @Test
+    @DisplayName("Mate And Stalemate Have No Legal Move")
+    public void mateAndStalemate() {
+        var mate = Fen.parse("rnb1kbnr/pppp1ppp/8/4p3/6Pq/5P2/PPPPP2P/RNBQKBNR w - - 1 3");
+        Assertions.assertFalse(mate.hasAnyLegalMove(ChessGame.TeamColor.WHITE));
+        Assertions.assertTrue(mate.isInCheckmate(ChessGame.TeamColor.WHITE));
+
+        var stalemate = Fen.parse("7k/5Q2/6K1/8/8/8/8/8 b - - 0 1");
+        Assertions.assertFalse(stalemate.hasAnyLegalMove(ChessGame.TeamColor.BLACK));
+        Assertions.assertTrue(stalemate.isInStalemate(ChessGame.TeamColor.BLACK));
+
+        var blocked = Fen.parse("4r2k/8/8/8/8/8/3P1P2/3RKR2 w - - 0 1");
+        Assertions.assertTrue(blocked.isInCheck(ChessGame.TeamColor.WHITE));
+        Assertions.assertFalse(blocked.hasAnyLegalMove(ChessGame.TeamColor.WHITE), "Back rank mate");
+    }
+
+    @Test
+    @DisplayName("Off Board Moves Rejected")
+    public void offBoard() {
+        var game = new ChessGame();
+        for (ChessMove move : new ChessMove[]{
+                new ChessMove(new ChessPosition(2, 1), new ChessPosition(3, 0), null),
+                new ChessMove(new ChessPosition(2, 8), new ChessPosition(3, 9), null),
+                new ChessMove(new ChessPosition(0, 1), new ChessPosition(3, 1), null),
+                new ChessMove(new ChessPosition(7, 1), new ChessPosition(9, 1), null)}) {
+            Assertions.assertThrows(InvalidMoveException.class, () -> game.makeMove(move), move.toString());
+        }
+        Assertions.assertEquals(new ChessGame(), game);
+    }
+
+    @Test
+    @DisplayName("Cached Moves Follow Board Edits")
+    public void cacheFollowsEdits() throws InvalidMoveException {
+        var game = new ChessGame();
+        Assertions.assertSame(game.legalMoves(ChessGame.TeamColor.WHITE), game.legalMoves(ChessGame.TeamColor.WHITE));
+        Assertions.assertEquals(20, game.getAllValidMoves(ChessGame.TeamColor.WHITE).size());
+
+        game.getBoard().addPiece(new ChessPosition(2, 1), null);
+        Assertions.assertEquals(24, game.getAllValidMoves(ChessGame.TeamColor.WHITE).size(), "Edit through getBoard");
+        Assertions.assertEquals(6, game.validMoves(new ChessPosition(1, 1)).size());
+
+        game.makeMove(new ChessMove(new ChessPosition(1, 1), new ChessPosition(4, 1), null));
+        Assertions.assertTrue(game.validMoves(new ChessPosition(4, 1)).size() > 6, "Moves after makeMove");
+
+        game.setBoard(Fen.parse("7k/5Q2/6K1/8/8/8/8/8 b - - 0 1").getBoard());
+        Assertions.assertTrue(game.getAllValidMoves(ChessGame.TeamColor.BLACK).isEmpty(), "Moves after setBoard");
+    }
+
+    @Test
+    @DisplayName("Batch Analysis Reports Each Position")
+    public void batchAnalysis() {
+        var games = new ArrayList<ChessGame>();
+        for (int i = 0; i < 100; i++) {
+            games.add(switch (i % 4) {
+                case 0 -> new ChessGame();
+                case 1 -> Fen.parse("rnb1kbnr/pppp1ppp/8/4p3/6Pq/5P2/PPPPP2P/RNBQKBNR w - - 1 3");
+                case 2 -> Fen.parse("7k/5Q2/6K1/8/8/8/8/8 b - - 0 1");
+                default -> Fen.parse("4k3/8/8/8/8/8/8/4R1K1 b - - 0 1");
+            });
+        }
+        var pool = new ForkJoinPool(4);
+        try {
+            var reports = PositionAnalysis.analyzeAll(games, pool);
+            Assertions.assertEquals(100, reports.size());
+            Assertions.assertEquals(new PositionAnalysis.Report(ChessGame.TeamColor.WHITE, 20,
+                    PositionAnalysis.Status.NORMAL), reports.get(0));
+            Assertions.assertEquals(PositionAnalysis.Status.CHECKMATE, reports.get(1).status());
+            Assertions.assertEquals(PositionAnalysis.Status.STALEMATE, reports.get(2).status());
+            Assertions.assertEquals(new PositionAnalysis.Report(ChessGame.TeamColor.BLACK, 4,
+                    PositionAnalysis.Status.CHECK), reports.get(99));
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    private static void walk(ChessBoard board, ChessGame.TeamColor side, int depth) {
+        var moves = new MoveList();
+        MoveGenerator.legalMoves(board, side, board.occupancy(side), moves);
+        Assertions.assertEquals(!moves.isEmpty(), MoveGenerator.hasLegalMove(board, side), board.toString());
+        if (depth == 0) {
+            return;
+        }
+        for (int i = 0; i < moves.size(); i++) {
+            int undo = board.makeMove(moves.get(i));
+            walk(board, ChessGame.opponent(side), depth - 1);
+            board.unmakeMove(moves.get(i), undo);
+        }
+    }
+
+    // checks every node against trial-move filtering, for all moves and for captures only
+    private static void compare(ChessBoard board, ChessGame.TeamColor side, int depth, String fen) {
+        var moves = new MoveList();
+        MoveGenerator.legalMoves(board, side, board.occupancy(side), moves);
+        var expected = new MoveList();
+        MoveGenerator.trialMoves(board, side, board.occupancy(side), -1L, expected);
+        Assertions.assertArrayEquals(sorted(expected), sorted(moves), fen + " " + board);
+
+        var captures = new MoveList();
+        MoveGenerator.legalCaptures(board, side, captures);
+        expected.clear();
+        MoveGenerator.trialMoves(board, side, board.occupancy(side), board.occupancy(ChessGame.opponent(side)),
+                expected);
+        Assertions.assertArrayEquals(sorted(expected), sorted(captures), fen + " " + board);
+        if (depth == 0) {
+            return;
+        }
+        for (int i = 0; i < moves.size(); i++) {
+            int undo = board.makeMove(moves.get(i));
+            compare(board, ChessGame.opponent(side), depth - 1, fen);
+            board.unmakeMove(moves.get(i), undo);
+        }
+    }
+
+    private static int[] sorted(MoveList moves) {
+        int[] packed = new int[moves.size()];
+        for (int i = 0; i < packed.length; i++) {
+            packed[i] = moves.get(i);
+        }
+        Arrays.sort(packed);
+        return packed;
+    }
+}
@@ -0,0 +1,51 @@
+package chess;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class MoveOrderingTests {
+
+    @Test
+    @DisplayName("Hash Move, Then Captures By Victim And Attacker, Then Killers")
+    public void orderOfCategories() {
+        // white pawn and rook can both take the black queen; the rook can also take a knight
+        var game = Fen.parse("4k3/8/8/2n5/3q4/4P3/8/2R1K3 w - - 0 1");
+        var board = game.getBoard();
+        var moves = new MoveList();
+        MoveGenerator.legalMoves(board, ChessGame.TeamColor.WHITE, board.occupancy(ChessGame.TeamColor.WHITE), moves);
+
+        int hash = PackedMove.of(Bitboards.square(1, 5), Bitboards.square(2, 5));
+        int killer = PackedMove.of(Bitboards.square(1, 3), Bitboards.square(1, 1));
+        var ordering = new MoveOrdering();
+        ordering.cutoff(killer, 3, 4, ChessGame.TeamColor.WHITE);
+        ordering.order(moves, 3, hash, board, ChessGame.TeamColor.WHITE);
+
+        Assertions.assertEquals(hash, moves.get(0));
+        Assertions.assertEquals(PackedMove.of(Bitboards.square(3, 5), Bitboards.square(4, 4)) | PackedMove.CAPTURE,
+                moves.get(1), "Pawn takes queen");
+        Assertions.assertEquals(PackedMove.of(Bitboards.square(1, 3), Bitboards.square(5, 3)) | PackedMove.CAPTURE,
+                moves.get(2), "Rook takes knight");
+        Assertions.assertEquals(killer, moves.get(3));
+    }
+
+    @Test
+    @DisplayName("Ordering Keeps Every Move")
+    public void keepsEveryMove() {
+        var game = Fen.parse(Perft.REFERENCES.get(1).fen());
+        var board = game.getBoard();
+        var moves = new MoveList();
+        MoveGenerator.legalMoves(board, ChessGame.TeamColor.WHITE, board.occupancy(ChessGame.TeamColor.WHITE), moves);
+        long sum = 0;
+        for (int i = 0; i < moves.size(); i++) {
+            sum += moves.get(i);
+        }
+
+        new MoveOrdering().order(moves, 0, PackedMove.NONE, board, ChessGame.TeamColor.WHITE);
+        Assertions.assertEquals(46, moves.size());
+        for (int i = 0; i < moves.size(); i++) {
+            sum -= moves.get(i);
+        }
+        Assertions.assertEquals(0, sum);
+    }
+}
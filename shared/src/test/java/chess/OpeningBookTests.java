@@ -0,0 +1,90 @@
+package chess;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+public class OpeningBookTests {
+
+    @TempDir
+    Path directory;
+
+    private static ChessMove move(String from, String to) {
+        return new ChessMove(position(from), position(to), null);
+    }
+
+    private static ChessPosition position(String square) {
+        return new ChessPosition(square.charAt(1) - '0', square.charAt(0) - 'a' + 1);
+    }
+
+    @Test
+    @DisplayName("Book Moves Found Among Many Positions")
+    public void lookup() throws IOException, InvalidMoveException {
+        var game = new ChessGame();
+        long start = game.zobristKey();
+        List<OpeningBook.Entry> entries = new ArrayList<>();
+        entries.add(new OpeningBook.Entry(start, move("e2", "e4"), 40));
+        entries.add(new OpeningBook.Entry(start, move("d2", "d4"), 35));
+        entries.add(new OpeningBook.Entry(start, move("g1", "f3"), 10));
+        // filler positions on both sides of the key, including keys negative as signed longs
+        var random = new SplittableRandom(7);
+        for (int i = 0; i < 10_000; i++) {
+            entries.add(new OpeningBook.Entry(random.nextLong(), move("a2", "a3"), 1));
+        }
+        Path file = directory.resolve("book.bin");
+        OpeningBook.write(file, entries);
+        Assertions.assertEquals(entries.size() * 16L, Files.size(file));
+
+        var book = OpeningBook.open(file);
+        Assertions.assertEquals(entries.size(), book.size());
+        Assertions.assertEquals(move("e2", "e4"), book.bestMove(game));
+        Assertions.assertEquals(List.of(move("e2", "e4"), move("d2", "d4"), move("g1", "f3")),
+                book.entries(game).stream().map(OpeningBook.Entry::move).toList());
+
+        game.makeMove(move("e2", "e4"));
+        Assertions.assertNull(book.bestMove(game), "Position after 1. e4 is not in the book");
+        Assertions.assertNotNull(Engine.bestMove(game, SearchLimits.depth(1), book),
+                "Engine should search outside the book");
+    }
+
+    @Test
+    @DisplayName("Illegal Book Moves Skipped")
+    public void illegalMoves() throws IOException {
+        var game = new ChessGame();
+        Path file = directory.resolve("bad.bin");
+        OpeningBook.write(file, List.of(new OpeningBook.Entry(game.zobristKey(), move("e2", "e5"), 100),
+                new OpeningBook.Entry(game.zobristKey(), move("e7", "e5"), 100),
+                new OpeningBook.Entry(game.zobristKey(), move("b1", "c3"), 1)));
+
+        var book = OpeningBook.open(file);
+        Assertions.assertEquals(move("b1", "c3"), book.bestMove(game));
+        Assertions.assertEquals(move("b1", "c3"), book.pickMove(game, new SplittableRandom(1)));
+    }
+
+    @Test
+    @DisplayName("Promotions Survive Encoding")
+    public void promotions() {
+        for (var type : List.of(ChessPiece.PieceType.QUEEN, ChessPiece.PieceType.ROOK,
+                ChessPiece.PieceType.BISHOP, ChessPiece.PieceType.KNIGHT)) {
+            var promotion = new ChessMove(position("b7"), position("a8"), type);
+            Assertions.assertEquals(promotion, OpeningBook.decode(OpeningBook.encode(promotion)));
+        }
+        Assertions.assertEquals(move("h1", "a8"), OpeningBook.decode(OpeningBook.encode(move("h1", "a8"))));
+    }
+
+    @Test
+    @DisplayName("Truncated File Rejected")
+    public void truncated() throws IOException {
+        Path file = directory.resolve("short.bin");
+        Files.write(file, new byte[20]);
+        Assertions.assertThrows(IOException.class, () -> OpeningBook.open(file));
+    }
+}
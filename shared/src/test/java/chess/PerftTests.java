@@ -0,0 +1,74 @@
+package chess;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Reference counts hold for these rules, which have no castling or en passant: the
+ * depths are chosen so neither can occur, except for kiwipete whose counts were
+ * checked against an independent generator with both disabled.
+ */
+public class PerftTests {
+
+    @Test
+    @DisplayName("Start Position")
+    public void startPosition() {
+        assertCounts(Fen.START, 20, 400, 8_902, 197_281);
+    }
+
+    @Test
+    @DisplayName("Kiwipete")
+    public void kiwipete() {
+        assertCounts("r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w - - 0 1", 46, 1_865, 86_585);
+    }
+
+    @Test
+    @DisplayName("Rook And Pawn Endgame")
+    public void endgame() {
+        assertCounts("8/2p5/3p4/KP5r/1R3p1k/8/4P1P1/8 w - - 0 1", 14, 191);
+    }
+
+    @Test
+    @DisplayName("Symmetric Middlegame")
+    public void middlegame() {
+        assertCounts("r4rk1/1pp1qppp/p1np1n2/2b1p1B1/2B1P1b1/P1NP1N2/1PP1QPPP/R4RK1 w - - 0 10", 46, 2_079, 89_890);
+    }
+
+    @Test
+    @DisplayName("Divide Sums To Total")
+    public void divideSumsToTotal() {
+        var game = Fen.parse(Fen.START);
+        var divide = Perft.divide(game, 3);
+
+        Assertions.assertEquals(20, divide.size(), "Wrong number of root moves");
+        Assertions.assertEquals(8_902, divide.values().stream().mapToLong(Long::longValue).sum());
+        Assertions.assertEquals(Fen.parse(Fen.START), game, "Perft left the game changed");
+    }
+
+    @Test
+    @DisplayName("Parallel Count Matches Sequential")
+    public void parallelCount() {
+        var pool = new ForkJoinPool(4);
+        try {
+            for (Perft.Reference reference : Perft.REFERENCES) {
+                var game = Fen.parse(reference.fen());
+                int depth = reference.counts().length;
+                Assertions.assertEquals(reference.counts()[depth - 1], Perft.countParallel(game, depth, pool),
+                        reference.name());
+                Assertions.assertEquals(Fen.parse(reference.fen()), game, "Parallel perft changed the game");
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    private static void assertCounts(String fen, long... expected) {
+        var game = Fen.parse(fen);
+        for (int depth = 1; depth <= expected.length; depth++) {
+            Assertions.assertEquals(expected[depth - 1], Perft.count(game, depth), "Wrong count at depth " + depth);
+        }
+    }
+}
@@ -0,0 +1,134 @@
+package chess;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+public class PgnTests {
+
+    private static final String SCHOLARS_MATE = """
+            [Event "Casual"]
+            [White "Ann \\"The Rook\\" Smith"]
+            [Black "Bob"]
+            [Result "1-0"]
+
+            1. e4 e5 2. Qh5 Nc6 3. Bc4 Nf6?? 4. Qxf7# 1-0
+            """;
+
+    private static List<String> split(String pgn) throws IOException {
+        return split(pgn, PgnReader.MAX_GAME, 0);
+    }
+
+    private static List<String> split(String pgn, int maxGame, long skipped) throws IOException {
+        List<String> games = new ArrayList<>();
+        try (var reader = new PgnReader(Channels.newChannel(
+                new ByteArrayInputStream(pgn.getBytes(StandardCharsets.UTF_8))), maxGame)) {
+            for (String game = reader.next(); game != null; game = reader.next()) {
+                games.add(game);
+            }
+            Assertions.assertEquals(skipped, reader.skipped());
+        }
+        return games;
+    }
+
+    private static ChessPosition position(String square) {
+        return new ChessPosition(square.charAt(1) - '0', square.charAt(0) - 'a' + 1);
+    }
+
+    @Test
+    @DisplayName("Reader Splits Games Across Buffers")
+    public void splitGames() throws IOException {
+        String commented = """
+                [Event "Notes"]
+
+                1. e4 {a comment
+                [that looks like a tag]} e5 *
+                """;
+        var pgn = new StringBuilder(commented);
+        for (int i = 0; i < 2000; i++) {
+            pgn.append('\n').append(SCHOLARS_MATE);
+        }
+        List<String> games = split(pgn.toString());
+
+        Assertions.assertEquals(2001, games.size());
+        Assertions.assertEquals(commented + "\n", games.get(0));
+        for (String game : games.subList(1, games.size())) {
+            Assertions.assertEquals(SCHOLARS_MATE.strip(), game.strip());
+        }
+        Assertions.assertEquals(List.of(), split("  \n\n"));
+    }
+
+    @Test
+    @DisplayName("Oversized Games Skipped")
+    public void oversized() throws IOException {
+        String huge = "[Event \"Huge\"]\n\n1. e4 {" + "x".repeat(10_000) + "} e5 *\n";
+        List<String> games = split(SCHOLARS_MATE + "\n" + huge + "\n" + SCHOLARS_MATE + "\n" + huge, 1000, 2);
+
+        Assertions.assertEquals(2, games.size());
+        for (String game : games) {
+            Assertions.assertEquals(SCHOLARS_MATE.strip(), game.strip());
+        }
+    }
+
+    @Test
+    @DisplayName("Brace Comments Do Not Nest")
+    public void commentsDoNotNest() throws IOException {
+        String stray = "[Event \"Stray\"]\n\n1. e4 {a stray { in a comment} e5 *\n";
+        List<String> games = split(stray + "\n" + SCHOLARS_MATE);
+
+        Assertions.assertEquals(List.of(stray + "\n", SCHOLARS_MATE), games);
+    }
+
+    @Test
+    @DisplayName("Moves Replay To Final Position")
+    public void replay() {
+        PgnGame game = Pgn.parse(SCHOLARS_MATE);
+
+        Assertions.assertEquals("Ann \"The Rook\" Smith", game.tags().get("White"));
+        Assertions.assertEquals("1-0", game.result());
+        Assertions.assertEquals(7, game.moves().size());
+        Assertions.assertEquals(new ChessMove(position("h5"), position("f7"), null), game.moves().get(6));
+        Assertions.assertTrue(game.game().isInCheckmate(ChessGame.TeamColor.BLACK));
+    }
+
+    @Test
+    @DisplayName("Comments, Variations And Glyphs Skipped")
+    public void annotations() {
+        PgnGame game = Pgn.parse("1. e4 {best by test} e5 (1... c5 2. Nf3 (2. c3) d6) 2. Nf3 $1 ; a line comment\n"
+                + "2... Nc6 3.Nc3 *");
+
+        Assertions.assertEquals(5, game.moves().size());
+        Assertions.assertEquals("*", game.result());
+        Assertions.assertEquals(ChessGame.TeamColor.BLACK, game.game().getTeamTurn());
+    }
+
+    @Test
+    @DisplayName("Disambiguation And Promotion Resolved")
+    public void disambiguation() {
+        ChessGame game = Pgn.parse("1. Nf3 d5 2. Nc3 e5 3. Nb5 a6").game();
+        Assertions.assertThrows(IllegalArgumentException.class, () -> Pgn.resolve(game, "Nd4"));
+        Assertions.assertEquals(new ChessMove(position("b5"), position("d4"), null), Pgn.resolve(game, "Nbd4"));
+        Assertions.assertEquals(new ChessMove(position("f3"), position("d4"), null), Pgn.resolve(game, "N3xd4"));
+
+        PgnGame promoted = Pgn.parse("[SetUp \"1\"]\n[FEN \"8/P6k/8/8/8/8/8/K7 w - - 0 1\"]\n\n1. a8=Q Kg6 2. Qb8 *");
+        Assertions.assertEquals(ChessPiece.PieceType.QUEEN, promoted.moves().get(0).getPromotionPiece());
+        Assertions.assertEquals(ChessPiece.PieceType.QUEEN,
+                promoted.game().getBoard().getPiece(position("b8")).getPieceType());
+    }
+
+    @Test
+    @DisplayName("Bad Games Rejected")
+    public void rejected() {
+        for (String pgn : new String[]{"1. e4 e5 2. Nf3 Nc6 3. Bc4 Bc5 4. O-O *", "1. e5 *", "1. e4 e5 2. Ke3 *",
+                "1. Zz9 *", "1. e4 ) *", "[Event \"unclosed *"}) {
+            Assertions.assertThrows(IllegalArgumentException.class, () -> Pgn.parse(pgn), pgn);
+        }
+    }
+}
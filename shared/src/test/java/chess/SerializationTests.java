@@ -0,0 +1,59 @@
+package chess;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class SerializationTests {
+
+    private static final Gson GSON = new Gson();
+
+    // a game as stored before boards were bitboards: white king e1, black king e8, white rook h3
+    private static final String LEGACY = "{\"currentTurn\":\"BLACK\",\"board\":{\"squares\":["
+            + "[null,null,null,null,{\"pieceColor\":\"WHITE\",\"type\":\"KING\"},null,null,null],"
+            + "[null,null,null,null,null,null,null,null],"
+            + "[null,null,null,null,null,null,null,{\"pieceColor\":\"WHITE\",\"type\":\"ROOK\"}],"
+            + "[null,null,null,null,null,null,null,null],"
+            + "[null,null,null,null,null,null,null,null],"
+            + "[null,null,null,null,null,null,null,null],"
+            + "[null,null,null,null,null,null,null,null],"
+            + "[null,null,null,null,{\"pieceColor\":\"BLACK\",\"type\":\"KING\"},null,null,null]]}}";
+
+    @Test
+    @DisplayName("Board Written In Squares Layout")
+    public void writesSquares() {
+        String json = GSON.toJson(new ChessGame());
+        Assertions.assertTrue(json.contains("\"squares\":[[{\"pieceColor\":\"WHITE\",\"type\":\"ROOK\"}"), json);
+        Assertions.assertFalse(json.contains("pieceBoards"), json);
+        Assertions.assertEquals(new ChessGame(), GSON.fromJson(json, ChessGame.class));
+    }
+
+    @Test
+    @DisplayName("Stored Games Load With Current State")
+    public void readsLegacy() {
+        ChessGame game = GSON.fromJson(LEGACY, ChessGame.class);
+        ChessGame expected = ChessGame.fromFen("4k3/8/8/8/8/7R/8/4K3 b - - 0 1");
+
+        Assertions.assertEquals(expected, game);
+        Assertions.assertEquals(expected.zobristKey(), game.zobristKey());
+        Assertions.assertArrayEquals(Evaluation.recompute(game.getBoard().pieceBoards),
+                new int[]{game.getBoard().middlegame, game.getBoard().endgame, game.getBoard().phase});
+        Assertions.assertEquals(Evaluation.evaluate(expected.getBoard(), ChessGame.TeamColor.BLACK),
+                Evaluation.evaluate(game.getBoard(), ChessGame.TeamColor.BLACK));
+        Assertions.assertEquals(ChessPiece.PieceType.ROOK, game.getBoard().getPiece(new ChessPosition(3, 8)).getPieceType());
+        String board = LEGACY.substring(LEGACY.indexOf("{\"squares\""), LEGACY.length() - 1);
+        Assertions.assertEquals(board, GSON.toJson(game.getBoard()));
+    }
+
+    @Test
+    @DisplayName("Malformed Boards Rejected")
+    public void malformed() {
+        for (String json : new String[]{"{\"squares\":[[{\"pieceColor\":\"RED\",\"type\":\"KING\"}]]}",
+                "{\"squares\":[[{\"type\":\"KING\"}]]}",
+                "{\"squares\":[[null,null,null,null,null,null,null,null,{\"pieceColor\":\"WHITE\",\"type\":\"KING\"}]]}"}) {
+            Assertions.assertThrows(JsonParseException.class, () -> GSON.fromJson(json, ChessBoard.class), json);
+        }
+    }
+}
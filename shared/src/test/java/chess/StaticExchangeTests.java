@@ -0,0 +1,48 @@
+package chess;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class StaticExchangeTests {
+
+    @Test
+    @DisplayName("Undefended Piece Wins Its Value")
+    public void undefended() {
+        Assertions.assertEquals(320, see("4k3/8/8/3n4/8/8/8/3RK3 w - - 0 1", 1, 4, 5, 4));
+    }
+
+    @Test
+    @DisplayName("Pawn Takes Defended Knight")
+    public void pawnTakesDefendedKnight() {
+        Assertions.assertEquals(220, see("4k3/8/4p3/3n4/4P3/8/8/4K3 w - - 0 1", 4, 5, 5, 4));
+    }
+
+    @Test
+    @DisplayName("Queen Takes Defended Pawn Loses")
+    public void queenTakesDefendedPawn() {
+        Assertions.assertEquals(-800, see("4k3/8/2p5/3p4/8/8/8/3QK3 w - - 0 1", 1, 4, 5, 4));
+    }
+
+    @Test
+    @DisplayName("Rook Battery Sees Through X-Ray")
+    public void xray() {
+        // two rooks against a rook-defended pawn: RxP RxR RxR nets the pawn
+        Assertions.assertEquals(100, see("3rk3/8/8/3p4/8/8/3R4/3RK3 w - - 0 1", 2, 4, 5, 4));
+        // without the second rook the capture loses the exchange
+        Assertions.assertEquals(-400, see("3rk3/8/8/3p4/8/8/3R4/4K3 w - - 0 1", 2, 4, 5, 4));
+    }
+
+    @Test
+    @DisplayName("King Cannot Recapture Into A Defended Square")
+    public void kingRecapture() {
+        // the black king may not take back on d7 while the bishop on b5 guards it
+        Assertions.assertEquals(320, see("4k3/3n4/8/1B6/8/8/8/3RK3 w - - 0 1", 1, 4, 7, 4));
+    }
+
+    private static int see(String fen, int fromRow, int fromCol, int toRow, int toCol) {
+        var board = Fen.parse(fen).getBoard();
+        int move = PackedMove.of(Bitboards.square(fromRow, fromCol), Bitboards.square(toRow, toCol));
+        return new StaticExchange().evaluate(board, move | PackedMove.CAPTURE);
+    }
+}
@@ -0,0 +1,164 @@
+package chess;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.concurrent.ForkJoinPool;
+
+public class TablebaseTests {
+
+    @TempDir
+    static Path directory;
+    private static Tablebases tables;
+
+    @BeforeAll
+    public static void generate() throws IOException {
+        TablebaseGenerator.generate("KQK", directory);
+        TablebaseGenerator.generate("KRK", directory);
+        TablebaseGenerator.generate("KPK", directory);
+        tables = new Tablebases(directory);
+    }
+
+    private static int longestWin(String material) throws IOException {
+        int longest = 0;
+        for (byte value : Files.readAllBytes(directory.resolve(material + Tablebases.SUFFIX))) {
+            int code = Byte.toUnsignedInt(value);
+            if (Tablebases.isWin(code)) {
+                longest = Math.max(longest, Tablebases.plies(code));
+            }
+        }
+        return longest;
+    }
+
+    @Test
+    @DisplayName("Longest Mates Match Known Values")
+    public void longestMates() throws IOException {
+        // queen mates within 10 moves and rook within 16 from any position
+        Assertions.assertEquals(19, longestWin("KQK"));
+        Assertions.assertEquals(31, longestWin("KRK"));
+        Assertions.assertTrue(Files.isRegularFile(directory.resolve("KNK" + Tablebases.SUFFIX)),
+                "Promotion tables should be generated first");
+        Assertions.assertEquals(0, longestWin("KNK"));
+    }
+
+    @Test
+    @DisplayName("Known Positions Probe Correctly")
+    public void knownPositions() {
+        var mateInOne = Fen.parse("k7/8/1K6/8/8/8/8/6Q1 w");
+        Assertions.assertEquals(new Tablebases.Result(Tablebases.Outcome.WIN, 1), tables.probe(mateInOne));
+        Assertions.assertEquals(new ChessMove(new ChessPosition(1, 7), new ChessPosition(8, 7), null),
+                tables.bestMove(mateInOne));
+
+        var mated = Fen.parse("k5Q1/8/1K6/8/8/8/8/8 b");
+        Assertions.assertEquals(new Tablebases.Result(Tablebases.Outcome.LOSS, 0), tables.probe(mated));
+        Assertions.assertNull(tables.bestMove(mated));
+
+        var hangingQueen = Fen.parse("k7/1Q6/8/8/8/8/8/K7 b");
+        Assertions.assertEquals(Tablebases.Outcome.DRAW, tables.probe(hangingQueen).outcome());
+
+        var stalemate = Fen.parse("4k3/4P3/4K3/8/8/8/8/8 b");
+        Assertions.assertEquals(Tablebases.Outcome.DRAW, tables.probe(stalemate).outcome());
+
+        var kingInFront = Fen.parse("4k3/8/4K3/4P3/8/8/8/8 w");
+        Assertions.assertEquals(Tablebases.Outcome.WIN, tables.probe(kingInFront).outcome());
+
+        Assertions.assertNull(tables.probe(new ChessGame()), "Start position has no tablebase");
+        Assertions.assertNull(tables.probe(Fen.parse("k7/8/8/8/8/8/8/KNN5 w")), "KNNK was never generated");
+    }
+
+    @Test
+    @DisplayName("Best Moves Follow Distances")
+    public void bestMovesFollowDistances() {
+        // each best move shortens the distance by exactly one ply
+        var game = Fen.parse("7R/8/8/8/8/8/8/k6K w");
+        var result = tables.probe(game);
+        Assertions.assertEquals(Tablebases.Outcome.WIN, result.outcome());
+        for (int plies = result.plies(); plies > 0; plies--) {
+            ChessMove move = tables.bestMove(game);
+            Assertions.assertDoesNotThrow(() -> game.makeMove(move));
+            var next = tables.probe(game);
+            Assertions.assertEquals(plies - 1, next.plies());
+            Assertions.assertEquals(plies % 2 == 1 ? Tablebases.Outcome.LOSS : Tablebases.Outcome.WIN,
+                    next.outcome());
+        }
+        Assertions.assertTrue(game.isInCheckmate(game.getTeamTurn()));
+    }
+
+    @Test
+    @DisplayName("Parallel Generation Matches Serial")
+    public void parallelMatchesSerial(@TempDir Path serial) throws IOException {
+        ForkJoinPool one = new ForkJoinPool(1);
+        ForkJoinPool four = new ForkJoinPool(4);
+        try {
+            Path parallel = serial.resolve("parallel");
+            TablebaseGenerator.generate("KQK", serial, one);
+            TablebaseGenerator.generate("KQK", parallel, four);
+            Assertions.assertArrayEquals(Files.readAllBytes(serial.resolve("KQK.tb")),
+                    Files.readAllBytes(parallel.resolve("KQK.tb")));
+        } finally {
+            one.shutdown();
+            four.shutdown();
+        }
+    }
+
+    @Test
+    @DisplayName("Material Signatures Are Distinct")
+    public void materialSignatures() {
+        var names = new ArrayList<String>();
+        String extras = "QRBNPqrbnp";
+        names.add("KK");
+        for (int a = 0; a < extras.length(); a++) {
+            names.add(name(extras.substring(a, a + 1)));
+            for (int b = a; b < extras.length(); b++) {
+                names.add(name("" + extras.charAt(a) + extras.charAt(b)));
+            }
+        }
+        Assertions.assertEquals(Material.SIGNATURES, names.size());
+
+        var seen = new HashSet<Integer>();
+        for (String name : names) {
+            Material material = Material.parse(name);
+            // kings first, then the other pieces on the squares that follow
+            var board = new ChessBoard();
+            int[] squares = new int[material.pieceCount()];
+            for (int slot = 0; slot < squares.length; slot++) {
+                squares[slot] = 20 + slot;
+                board.place(material.piece(slot), squares[slot]);
+            }
+            int signature = Material.signature(board);
+            Assertions.assertTrue(signature >= 0 && signature < Material.SIGNATURES, name);
+            Assertions.assertTrue(seen.add(signature), name);
+            Assertions.assertEquals(material, Material.of(board), name);
+            Assertions.assertEquals(material.index(ChessGame.TeamColor.BLACK, squares),
+                    material.index(board, ChessGame.TeamColor.BLACK), name);
+        }
+        Assertions.assertEquals(-1, Material.signature(new ChessGame().getBoard()));
+    }
+
+    // white's pieces in upper case and black's in lower case, after each side's king
+    private static String name(String extras) {
+        var white = new StringBuilder("K");
+        var black = new StringBuilder("K");
+        for (char c : extras.toCharArray()) {
+            (Character.isUpperCase(c) ? white : black).append(Character.toUpperCase(c));
+        }
+        return white.append(black).toString();
+    }
+
+    @Test
+    @DisplayName("Unsupported Materials Rejected")
+    public void unsupportedMaterials() {
+        Assertions.assertThrows(IllegalArgumentException.class,
+                () -> TablebaseGenerator.generate("KQRKR", directory));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> TablebaseGenerator.generate("QK", directory));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> TablebaseGenerator.generate("KXK", directory));
+    }
+}
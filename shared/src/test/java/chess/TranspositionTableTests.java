@@ -0,0 +1,97 @@
+package chess;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class TranspositionTableTests {
+
+    @Test
+    @DisplayName("Stored Entry Reads Back")
+    public void storeAndProbe() {
+        var table = new TranspositionTable(1);
+        long key = 0x9E3779B97F4A7C15L;
+        int move = PackedMove.of(12, 28) | PackedMove.CAPTURE;
+
+        Assertions.assertEquals(0, table.probe(key));
+        table.store(key, move, -1234, 7, TranspositionTable.LOWER);
+        long entry = table.probe(key);
+
+        Assertions.assertEquals(move, TranspositionTable.move(entry));
+        Assertions.assertEquals(-1234, TranspositionTable.score(entry));
+        Assertions.assertEquals(7, TranspositionTable.depth(entry));
+        Assertions.assertEquals(TranspositionTable.LOWER, TranspositionTable.bound(entry));
+        Assertions.assertEquals(0, table.probe(key ^ 1), "Other keys must miss");
+
+        table.store(key, PackedMove.NONE, 50, 8, TranspositionTable.UPPER);
+        Assertions.assertEquals(move, TranspositionTable.move(table.probe(key)), "Best move kept without a new one");
+
+        table.clear();
+        Assertions.assertEquals(0, table.probe(key));
+    }
+
+    @Test
+    @DisplayName("Full Bucket Replaces Shallowest Entry")
+    public void replacement() {
+        // a one-megabyte table has 16384 buckets; keys below 2^50 all land in bucket 0
+        var table = new TranspositionTable(1);
+        for (int i = 1; i <= 4; i++) {
+            table.store(i, PackedMove.NONE, i, 10 + i, TranspositionTable.EXACT);
+        }
+        table.store(5, PackedMove.NONE, 5, 20, TranspositionTable.EXACT);
+
+        Assertions.assertEquals(0, table.probe(1), "Shallowest entry should be replaced");
+        for (int i = 2; i <= 5; i++) {
+            Assertions.assertNotEquals(0, table.probe(i));
+        }
+    }
+
+    @Test
+    @DisplayName("Concurrent Writers Never Yield Mixed Entries")
+    public void concurrentAccess() throws InterruptedException {
+        var table = new TranspositionTable(1);
+        var mismatches = new AtomicInteger();
+        Thread[] threads = new Thread[4];
+        for (int t = 0; t < threads.length; t++) {
+            long seed = t;
+            threads[t] = new Thread(() -> {
+                var random = new SplittableRandom(seed);
+                for (int i = 0; i < 200_000; i++) {
+                    // few distinct keys so threads keep overwriting each other's entries
+                    long key = random.nextLong(64) << 56 | 1;
+                    int score = (int) (key >>> 56);
+                    if (random.nextBoolean()) {
+                        table.store(key, PackedMove.NONE, score, score, TranspositionTable.EXACT);
+                    } else {
+                        long entry = table.probe(key);
+                        if (entry != 0 && (TranspositionTable.score(entry) != score
+                                || TranspositionTable.depth(entry) != score)) {
+                            mismatches.incrementAndGet();
+                        }
+                    }
+                }
+            });
+            threads[t].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        Assertions.assertEquals(0, mismatches.get());
+    }
+
+    @Test
+    @DisplayName("Warm Table Saves Search Work")
+    public void warmTable() {
+        var table = new TranspositionTable(4);
+        var game = Fen.parse(Perft.REFERENCES.get(1).fen());
+        var cold = Engine.search(game, SearchLimits.depth(4), table);
+        var warm = Engine.search(game, SearchLimits.depth(4), table);
+
+        // deeper results left in the table may change the answer, but it must stay legal
+        Assertions.assertTrue(game.validMoves(warm.move().getStartPosition()).contains(warm.move()));
+        Assertions.assertTrue(warm.nodes() < cold.nodes(), "Warm table should save work");
+    }
+}
@@ -0,0 +1,81 @@
+package chess;
+
+import com.google.gson.Gson;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class ZobristTests {
+
+    @Test
+    @DisplayName("Incremental Key Matches Full Recompute")
+    public void incrementalMatchesRecompute() throws InvalidMoveException {
+        var game = new ChessGame();
+        game.makeMove(new ChessMove(new ChessPosition(2, 5), new ChessPosition(4, 5), null));
+        game.makeMove(new ChessMove(new ChessPosition(7, 4), new ChessPosition(5, 4), null));
+        game.makeMove(new ChessMove(new ChessPosition(4, 5), new ChessPosition(5, 4), null));
+
+        var board = game.getBoard();
+        Assertions.assertEquals(Zobrist.hash(board.pieceBoards), board.zobristKey(),
+                "Key drifted from the pieces on the board");
+    }
+
+    @Test
+    @DisplayName("Make And Unmake Restores Key")
+    public void unmakeRestoresKey() {
+        var board = new ChessBoard();
+        board.addPiece(new ChessPosition(7, 1), new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.PAWN));
+        board.addPiece(new ChessPosition(8, 2), new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.ROOK));
+        long before = board.zobristKey();
+
+        var move = new ChessMove(new ChessPosition(7, 1), new ChessPosition(8, 2), ChessPiece.PieceType.QUEEN);
+        int undo = board.makeMove(move);
+        Assertions.assertNotEquals(before, board.zobristKey(), "Capture with promotion did not change the key");
+        board.unmakeMove(move, undo);
+
+        Assertions.assertEquals(before, board.zobristKey(), "Unmake did not restore the key");
+    }
+
+    @Test
+    @DisplayName("Transpositions Share A Key")
+    public void transpositionsShareKey() throws InvalidMoveException {
+        var first = new ChessGame();
+        first.makeMove(new ChessMove(new ChessPosition(1, 2), new ChessPosition(3, 3), null));
+        first.makeMove(new ChessMove(new ChessPosition(8, 2), new ChessPosition(6, 3), null));
+        first.makeMove(new ChessMove(new ChessPosition(1, 7), new ChessPosition(3, 6), null));
+
+        var second = new ChessGame();
+        second.makeMove(new ChessMove(new ChessPosition(1, 7), new ChessPosition(3, 6), null));
+        second.makeMove(new ChessMove(new ChessPosition(8, 2), new ChessPosition(6, 3), null));
+        second.makeMove(new ChessMove(new ChessPosition(1, 2), new ChessPosition(3, 3), null));
+
+        Assertions.assertEquals(first.zobristKey(), second.zobristKey(), "Same position hashed differently");
+        Assertions.assertEquals(first, second);
+    }
+
+    @Test
+    @DisplayName("Side To Move Changes Key")
+    public void sideToMoveChangesKey() {
+        var game = new ChessGame();
+        long white = game.zobristKey();
+        game.setTeamTurn(ChessGame.TeamColor.BLACK);
+
+        Assertions.assertNotEquals(white, game.zobristKey(), "Side to move is not part of the key");
+        Assertions.assertEquals(white, game.getBoard().zobristKey(), "Board key should not include side to move");
+    }
+
+    @Test
+    @DisplayName("Key Rebuilt When Board Is Loaded")
+    public void keyRebuiltOnLoad() throws InvalidMoveException {
+        var game = new ChessGame();
+        game.makeMove(new ChessMove(new ChessPosition(2, 4), new ChessPosition(4, 4), null));
+        var gson = new Gson();
+        String json = gson.toJson(game.getBoard());
+        Assertions.assertFalse(json.contains("zobrist"), json);
+
+        ChessBoard loaded = gson.fromJson(json, ChessBoard.class);
+        Assertions.assertEquals(Zobrist.hash(loaded.pieceBoards), loaded.zobristKey());
+        Assertions.assertEquals(game.getBoard(), loaded);
+        Assertions.assertEquals(game.getBoard().hashCode(), loaded.hashCode());
+    }
+}